@@ -0,0 +1,20 @@
+package com.dniprotech.financialaccounting;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dniprotech.financialaccounting.AddTransaction")
+@Label("Додавання операції")
+@Category({"Financial Accounting", "UI"})
+public class AddTransactionEvent extends Event {
+    @Label("Категорія")
+    public String category;
+
+    @Label("Сума (копійки)")
+    public long amount;
+
+    @Label("Записів у журналі")
+    public long rows;
+}
@@ -0,0 +1,78 @@
+package com.dniprotech.financialaccounting;
+
+import com.dniprotech.financialaccounting.ledger.LedgerIndex;
+import javafx.application.Platform;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class AggregateWorker {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "aggregate-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Object, Computation> running = new HashMap<>();
+    private LedgerIndex index = new LedgerIndex();
+
+    public void update(Consumer<LedgerIndex> update) {
+        executor.execute(() -> {
+            try {
+                update.accept(index);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    public void reset() {
+        executor.execute(() -> index = new LedgerIndex());
+    }
+
+    public <R> void submit(Object key, Function<LedgerIndex, R> computation, Consumer<R> publisher, Runnable cancelled) {
+        cancel(key);
+        Computation self = new Computation(cancelled);
+        self.future = executor.submit(() -> {
+            R result;
+            try {
+                result = computation.apply(index);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                return;
+            }
+            Platform.runLater(() -> {
+                if (running.get(key) == self) {
+                    running.remove(key);
+                    publisher.accept(result);
+                }
+            });
+        });
+        running.put(key, self);
+    }
+
+    public void cancel(Object key) {
+        Computation previous = running.remove(key);
+        if (previous != null) {
+            previous.future.cancel(false);
+            previous.cancelled.run();
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Computation {
+        private final Runnable cancelled;
+        private Future<?> future;
+
+        private Computation(Runnable cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.dniprotech.financialaccounting;
+
+import com.dniprotech.financialaccounting.ledger.Money;
+import javafx.scene.control.TableCell;
+
+import java.text.DecimalFormatSymbols;
+
+public class AmountTableCell<S> extends TableCell<S, Long> {
+    static final char DECIMAL_SEPARATOR = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    private final StringBuilder text = new StringBuilder(24);
+
+    @Override
+    protected void updateItem(Long amount, boolean empty) {
+        super.updateItem(amount, empty);
+        if (empty || amount == null) {
+            setText(null);
+        } else {
+            text.setLength(0);
+            setText(Money.format(amount, text, DECIMAL_SEPARATOR).toString());
+        }
+    }
+}
@@ -0,0 +1,1316 @@
+package com.dniprotech.financialaccounting;
+
+import com.dniprotech.financialaccounting.ledger.AggregationCube;
+import com.dniprotech.financialaccounting.ledger.AnalyticsAggregates;
+import com.dniprotech.financialaccounting.ledger.BalanceSeries;
+import com.dniprotech.financialaccounting.ledger.Category;
+import com.dniprotech.financialaccounting.ledger.ChartResolution;
+import com.dniprotech.financialaccounting.ledger.FsyncPolicy;
+import com.dniprotech.financialaccounting.ledger.ImportRules;
+import com.dniprotech.financialaccounting.ledger.LedgerBinaryFile;
+import com.dniprotech.financialaccounting.ledger.LedgerCheckpointer;
+import com.dniprotech.financialaccounting.ledger.LedgerCompactor;
+import com.dniprotech.financialaccounting.ledger.LedgerIndex;
+import com.dniprotech.financialaccounting.ledger.LedgerSnapshot;
+import com.dniprotech.financialaccounting.ledger.Money;
+import com.dniprotech.financialaccounting.ledger.SeriesDownsampler;
+import com.dniprotech.financialaccounting.ledger.StatementImporter;
+import com.dniprotech.financialaccounting.ledger.Subcategory;
+import com.dniprotech.financialaccounting.ledger.Transaction;
+import com.dniprotech.financialaccounting.ledger.TransactionJournal;
+import com.dniprotech.financialaccounting.ledger.TransactionRecordParser;
+import com.dniprotech.financialaccounting.ledger.TransactionStore;
+import com.dniprotech.financialaccounting.ledger.VersionedCache;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.chart.*;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Circle;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.DateFormatSymbols;
+import java.text.ParseException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class FinanceManagerApp extends Application {
+    private Stage primaryStage;
+    private BorderPane root;
+    private String currentUser;
+    private ObservableList<Category> categories;
+    private Map<Category, List<Subcategory>> categorySubcategoriesMap;
+    private TableView<Transaction> transactionHistoryTableView;
+    private TableView<BalanceCategory> balanceTableView;
+    private PieChart pieChart;
+    private TableView<Transaction> incomeCategoryTableView;
+    private TableView<Transaction> expenseCategoryTableView;
+
+    private static final double DEFAULT_CHART_WIDTH = 800;
+    private static final double PIXELS_PER_LINE_POINT = 3;
+    private static final double PIXELS_PER_BAR_BUCKET = 16;
+    private static final int ANALYTICS_VIEW_CACHE_SIZE = 16;
+    private static final String ALL_CATEGORIES = "Усі категорії";
+    private static final String HISTORY_SEARCH = "History Search";
+    private static final double CHECKPOINT_INTERVAL_SECONDS = 120;
+    private static final long CHECKPOINT_MIN_TAIL_BYTES = 256 * 1024;
+
+    private LineChart<Number, Number> lineChart;
+    private BarChart<String, Number> barChart;
+    private ScatterChart<String, Number> scatterChart;
+    private ChartResolution chartResolution = ChartResolution.AUTO;
+    private TextField timeField;
+    private Label incomeTotalLabel;
+    private Label expenseTotalLabel;
+    private ProgressBar loadProgressBar;
+    private Label loadStatusLabel;
+    private TransactionJournal journal;
+    private TransactionStore store = new TransactionStore();
+    private LocalDate rangeFrom;
+    private LocalDate rangeTo;
+    private final VersionedCache<List<Object>, Node> analyticsViews = new VersionedCache<>(ANALYTICS_VIEW_CACHE_SIZE);
+    private VBox analyticsBox;
+    private String analyticsOption;
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler();
+    private final AggregateWorker aggregateWorker = new AggregateWorker();
+    private List<Object> analyticsViewKey;
+    private LedgerBinaryFile historyFile;
+    private long ledgerVersion;
+    private Button addRecordButton;
+    private MenuItem importItem;
+    private MenuItem compactItem;
+    private PagedTransactionList historyList;
+    private TextField searchField;
+    private ComboBox<String> historyCategoryFilter;
+    private LedgerCheckpointer checkpointer;
+    private Timeline checkpointTimeline;
+    private final FlightRecording flightRecording = new FlightRecording();
+
+
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+        primaryStage.setTitle("Управління фінансами");
+        String userName = getUserInfo();
+        currentUser = userName;
+        File userDataFile = new File("userdata", currentUser + "_transactions.txt");
+        long existingDataLength = openJournal(userDataFile);
+
+        root = new BorderPane();
+
+        MenuBar menuBar = new MenuBar();
+        Menu fileMenu = new Menu("Файл");
+        MenuItem saveItem = new MenuItem("Зберегти");
+        saveItem.setOnAction(e -> flushJournal());
+        importItem = new MenuItem("Імпорт виписки...");
+        importItem.setOnAction(e -> importStatement());
+        compactItem = new MenuItem("Стиснути історію");
+        compactItem.setOnAction(e -> compactHistory(userDataFile.toPath()));
+        MenuItem recordingItem = new MenuItem("Почати запис JFR");
+        recordingItem.setOnAction(e -> toggleFlightRecording(recordingItem));
+        if (Boolean.getBoolean("financialaccounting.jfr")) {
+            toggleFlightRecording(recordingItem);
+        }
+        MenuItem exitItem = new MenuItem("Вийти");
+        exitItem.setOnAction(e -> primaryStage.close());
+        fileMenu.getItems().addAll(saveItem, importItem, compactItem, recordingItem, new SeparatorMenuItem(), exitItem);
+        menuBar.getMenus().add(fileMenu);
+        root.setTop(menuBar);
+
+        VBox userInfoBox = new VBox(10);
+        Label userInfoLabel = new Label("Користувач: " + currentUser);
+        userInfoLabel.setStyle("-fx-font-size: 18px;");
+
+        userInfoBox.getChildren().addAll(userInfoLabel);
+        root.setTop(userInfoBox);
+
+        VBox transactionInputBox = new VBox(10);
+        transactionInputBox.setPadding(new Insets(20));
+        Label transactionLabel = new Label("Додавання операції");
+        transactionLabel.setStyle("-fx-font-size: 18px;");
+        TextField amountField = new TextField();
+        amountField.setPromptText("Сума");
+
+        DatePicker datePicker = new DatePicker();
+        datePicker.setPromptText("Дата");
+        datePicker.setValue(LocalDate.now());
+
+        timeField = new TextField();
+        timeField.setPromptText("ЧЧ:ММ:СС");
+
+        categories = FXCollections.observableArrayList(Category.defaults());
+
+        categorySubcategoriesMap = new HashMap<>();
+        for (Category category : categories) {
+            categorySubcategoriesMap.put(category, category.getSubcategories());
+        }
+
+        ComboBox<Category> categoryComboBox = new ComboBox<>();
+        categoryComboBox.setPromptText("Виберіть категорію");
+        categoryComboBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Category category) {
+                return category.getName();
+            }
+
+            @Override
+            public Category fromString(String string) {
+                return null;
+            }
+        });
+        categoryComboBox.setItems(FXCollections.observableArrayList(categories));
+
+        ComboBox<String> subcategoryComboBox = new ComboBox<>();
+        subcategoryComboBox.setPromptText("Виберіть підкатегорію");
+
+        categoryComboBox.setOnAction(e -> {
+            Category selectedCategory = categoryComboBox.getValue();
+            if (selectedCategory != null) {
+                List<Subcategory> subcategories = selectedCategory.getSubcategories();
+                List<String> subcategoryNames = new ArrayList<>();
+                for (Subcategory subcategory : subcategories) {
+                    subcategoryNames.add(subcategory.getName());
+                }
+                subcategoryComboBox.setItems(FXCollections.observableArrayList(subcategoryNames));
+                subcategoryComboBox.setDisable(false);
+                subcategoryComboBox.getSelectionModel().clearSelection();
+            } else {
+                subcategoryComboBox.getItems().clear();
+                subcategoryComboBox.setPromptText("Підкатегорія відсутня");
+                subcategoryComboBox.setDisable(true);
+            }
+        });
+
+        addRecordButton = new Button("Додати запис");
+        addRecordButton.setOnAction(e -> {
+            long amount = Money.parse(amountField.getText());
+            Category category = categoryComboBox.getValue();
+            String subcategory = subcategoryComboBox.getValue();
+            LocalDate selectedDate = datePicker.getValue();
+            String selectedTime = timeField.getText();
+            LocalDateTime dateTime = selectedDate.atTime(LocalTime.parse(selectedTime));
+            addTransaction(amount, category, subcategory, dateTime);
+        });
+
+        addRecordButton.setStyle("-fx-background-color: green; -fx-text-fill: white;");
+        addRecordButton.setMaxWidth(Double.MAX_VALUE);
+
+        Button openChartsButton = new Button("Аналітичні інструменти");
+        openChartsButton.setOnAction(e -> openChartsWindow());
+
+        HBox buttonsBox = new HBox(10);
+        buttonsBox.setAlignment(Pos.CENTER);
+        buttonsBox.getChildren().addAll(addRecordButton, openChartsButton);
+
+        transactionInputBox.getChildren().addAll(transactionLabel, amountField, datePicker, timeField,
+                categoryComboBox, subcategoryComboBox, buttonsBox);
+        transactionInputBox.setAlignment(Pos.CENTER);
+        root.setLeft(transactionInputBox);
+
+
+        transactionHistoryTableView = createTransactionHistoryTableView();
+        transactionHistoryTableView.setMaxHeight(Double.MAX_VALUE);
+        transactionHistoryTableView.setPlaceholder(new Label("Історія транзакцій відсутня"));
+        store.addListener(this::rowsAppended);
+        refreshScheduler.register("analytics", () -> analyticsBox != null, this::refreshAnalyticsView);
+        refreshScheduler.register("search", () -> !searchField.getText().isBlank()
+                || !ALL_CATEGORIES.equals(historyCategoryFilter.getValue()), this::applyHistorySearch);
+
+        VBox transactionHistoryBox = new VBox(10);
+        transactionHistoryBox.setPadding(new Insets(20));
+        Label transactionHistoryLabel = new Label("Історія транзакцій");
+        transactionHistoryLabel.setStyle("-fx-font-size: 18px;");
+
+        loadProgressBar = new ProgressBar(0);
+        loadProgressBar.setMaxWidth(Double.MAX_VALUE);
+        loadProgressBar.managedProperty().bind(loadProgressBar.visibleProperty());
+        loadStatusLabel = new Label();
+        HBox loadStatusBox = new HBox(10, loadProgressBar, loadStatusLabel);
+        loadStatusBox.setAlignment(Pos.CENTER_LEFT);
+        HBox.setHgrow(loadProgressBar, Priority.ALWAYS);
+        loadStatusBox.managedProperty().bind(loadStatusBox.visibleProperty());
+        loadStatusBox.setVisible(false);
+
+        searchField = new TextField();
+        searchField.setPromptText("Пошук за описом або підкатегорією");
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> applyHistorySearch());
+
+        historyCategoryFilter = new ComboBox<>(FXCollections.observableArrayList(
+                ALL_CATEGORIES, AggregationCube.INCOME, AggregationCube.EXPENSE));
+        historyCategoryFilter.setValue(ALL_CATEGORIES);
+        historyCategoryFilter.setOnAction(e -> applyHistorySearch());
+        HBox searchBox = new HBox(10, searchField, historyCategoryFilter);
+        HBox.setHgrow(searchField, Priority.ALWAYS);
+
+        transactionHistoryBox.getChildren().addAll(transactionHistoryLabel, loadStatusBox, searchBox, transactionHistoryTableView);
+        root.setRight(transactionHistoryBox);
+
+
+        primaryStage.setOnCloseRequest(e -> {
+            aggregateWorker.shutdown();
+            if (flightRecording.isRunning()) {
+                stopFlightRecording();
+            }
+            if (checkpointer != null) {
+                checkpointer.shutdown();
+            }
+            closeJournal();
+            closeHistoryFile();
+        });
+
+        Scene scene = new Scene(root, 1200, 600);
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        loadDataFromFile(userDataFile, existingDataLength);
+    }
+
+    private void createAndConfigurePieChart() {
+        pieChart = new PieChart();
+        pieChart.setTitle("Розподіл за категоріями");
+        updatePieChart();
+    }
+
+
+    private void createAndConfigureLineChart() {
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setForceZeroInRange(false);
+        xAxis.setTickLabelFormatter(new StringConverter<Number>() {
+            @Override
+            public String toString(Number epochDay) {
+                return LocalDate.ofEpochDay(epochDay.longValue()).format(TransactionRecordParser.DATE_FORMATTER);
+            }
+
+            @Override
+            public Number fromString(String date) {
+                return LocalDate.parse(date, TransactionRecordParser.DATE_FORMATTER).toEpochDay();
+            }
+        });
+        NumberAxis yAxis = new NumberAxis();
+        lineChart = new LineChart<>(xAxis, yAxis);
+        lineChart.setTitle("Графік балансу");
+        lineChart.setCreateSymbols(false);
+
+        xAxis.setLabel("Дата");
+        yAxis.setLabel("Баланс");
+
+        updateLineChart();
+    }
+
+    private void createAndConfigureBarChart() {
+        barChart = createBarChart();
+
+        barChart.setTitle("Графiк балансy");
+        barChart.getXAxis().setLabel("Дата");
+        barChart.getYAxis().setLabel("Баланс");
+
+        updateBarChart(barChart);
+    }
+
+    private void createAndConfigureScatterChart() {
+        scatterChart = createScatterChart();
+
+        scatterChart.setTitle("Точкова діаграма");
+        scatterChart.getXAxis().setLabel("Підкатегорії");
+        scatterChart.getYAxis().setLabel("Прибуток та витрати");
+        scatterChart.setLegendVisible(false);
+        updateScatterChart(scatterChart);
+    }
+
+    private void createAndConfigureIncomeCategoryTableView() {
+        incomeCategoryTableView = createIncomeCategoryTableView();
+        updateIncomeCategoryTable(); 
+    }
+
+    private void createAndConfigureExpenseCategoryTableView() {
+        expenseCategoryTableView = createExpenseCategoryTableView();
+        updateExpenseCategoryTable();
+    }
+
+    private void createAndConfigureBalanceTableView() {
+        balanceTableView = createBalanceTableView();
+        updateBalanceTable(); 
+    }
+
+    private void openChartsWindow() {
+        Stage chartsStage = new Stage();
+        chartsStage.setTitle("Аналітичні інструменти");
+
+        BorderPane mainLayout = new BorderPane();
+        
+        VBox chartBox = new VBox(20);
+        chartBox.setAlignment(Pos.CENTER);
+
+        ComboBox<String> chartSelector = new ComboBox<>();
+        chartSelector.setPromptText("Оберіть тип");
+        ObservableList<String> chartOptions = FXCollections.observableArrayList(
+                "Pie Chart", "Line Chart", "Bar Chart", "Scatter Chart",
+                "Income Table", "Expense Table", "Balance Table");
+        chartSelector.setItems(chartOptions);
+
+        chartSelector.setOnAction(event -> showAnalyticsView(chartBox, chartSelector.getValue()));
+
+        ComboBox<ChartResolution> resolutionSelector = new ComboBox<>(
+                FXCollections.observableArrayList(ChartResolution.values()));
+        resolutionSelector.setValue(chartResolution);
+        resolutionSelector.setOnAction(event -> {
+            chartResolution = resolutionSelector.getValue();
+            showAnalyticsView(chartBox, chartSelector.getValue());
+        });
+
+        DatePicker fromPicker = new DatePicker(rangeFrom);
+        fromPicker.setPromptText("Від");
+        DatePicker toPicker = new DatePicker(rangeTo);
+        toPicker.setPromptText("До");
+        fromPicker.valueProperty().addListener((observable, oldValue, newValue) -> {
+            rangeFrom = newValue;
+            showAnalyticsView(chartBox, chartSelector.getValue());
+        });
+        toPicker.valueProperty().addListener((observable, oldValue, newValue) -> {
+            rangeTo = newValue;
+            showAnalyticsView(chartBox, chartSelector.getValue());
+        });
+
+        HBox selectorBox = new HBox(10, chartSelector, new Label("Інтервал:"), resolutionSelector,
+                new Label("Період:"), fromPicker, toPicker);
+        selectorBox.setAlignment(Pos.CENTER_LEFT);
+        mainLayout.setTop(selectorBox);
+        mainLayout.setCenter(chartBox);
+
+        Scene chartsScene = new Scene(mainLayout, 800, 600);
+
+        chartsStage.setScene(chartsScene);
+        chartsStage.setOnHidden(event -> {
+            if (analyticsBox == chartBox) {
+                analyticsBox = null;
+            }
+        });
+
+        chartsStage.show();
+    }
+
+    private void showAnalyticsView(VBox chartBox, String selectedOption) {
+        analyticsBox = chartBox;
+        analyticsOption = selectedOption;
+        chartBox.getChildren().clear();
+        if (selectedOption == null) {
+            return;
+        }
+
+        boolean bucketed = "Line Chart".equals(selectedOption) || "Bar Chart".equals(selectedOption);
+        List<Object> key = Arrays.asList(selectedOption, rangeFrom, rangeTo, bucketed ? chartResolution : null);
+        analyticsViewKey = key;
+        Node view = analyticsViews.get(key, ledgerVersion, () -> createAnalyticsView(selectedOption));
+        if (view != null) {
+            chartBox.getChildren().add(view);
+        }
+    }
+
+    private void refreshAnalyticsView() {
+        if (analyticsBox != null) {
+            showAnalyticsView(analyticsBox, analyticsOption);
+        }
+    }
+
+    private Node createAnalyticsView(String selectedOption) {
+        if ("Pie Chart".equals(selectedOption)) {
+            createAndConfigurePieChart();
+            return pieChart;
+        } else if ("Line Chart".equals(selectedOption)) {
+            createAndConfigureLineChart();
+            return lineChart;
+        } else if ("Bar Chart".equals(selectedOption)) {
+            createAndConfigureBarChart();
+            return barChart;
+        } else if ("Scatter Chart".equals(selectedOption)) {
+            createAndConfigureScatterChart();
+            return scatterChart;
+        } else if ("Income Table".equals(selectedOption)) {
+            incomeTotalLabel = new Label();
+            createAndConfigureIncomeCategoryTableView();
+            Label incomeLabel = new Label("Таблиця прибутку");
+            incomeLabel.setStyle("-fx-font-size: 18;");
+            incomeTotalLabel.setStyle("-fx-font-size: 16;");
+            return analyticsViewBox(incomeLabel, incomeCategoryTableView, incomeTotalLabel);
+        } else if ("Expense Table".equals(selectedOption)) {
+            expenseTotalLabel = new Label();
+            createAndConfigureExpenseCategoryTableView();
+            Label expenseLabel = new Label("Таблиця витрат");
+            expenseLabel.setStyle("-fx-font-size: 18;");
+            expenseTotalLabel.setStyle("-fx-font-size: 16;");
+            return analyticsViewBox(expenseLabel, expenseCategoryTableView, expenseTotalLabel);
+        } else if ("Balance Table".equals(selectedOption)) {
+            createAndConfigureBalanceTableView();
+            Label balanceLabel = new Label("Річна таблиця загальних сум");
+            balanceLabel.setStyle("-fx-font-size: 18;");
+            return analyticsViewBox(balanceLabel, balanceTableView);
+        }
+        return null;
+    }
+
+    private static VBox analyticsViewBox(Node... children) {
+        VBox viewBox = new VBox(20, children);
+        viewBox.setAlignment(Pos.CENTER);
+        return viewBox;
+    }
+
+
+    private TableView<Transaction> createIncomeCategoryTableView() {
+        TableView<Transaction> incomeCategoryTableView = new TableView<>();
+        incomeCategoryTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<Transaction, LocalDateTime> incomeDateColumn = new TableColumn<>("Дата та час");
+        incomeDateColumn.setCellValueFactory(new PropertyValueFactory<>("dateTime"));
+        incomeDateColumn.setCellFactory(column -> new TableCell<>() {
+            private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+            @Override
+            protected void updateItem(LocalDateTime item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(formatter.format(item));
+                }
+            }
+        });
+
+        TableColumn<Transaction, String> incomeCategoryColumn = new TableColumn<>("Категорія");
+        incomeCategoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
+
+        TableColumn<Transaction, String> incomeSubcategoryColumn = new TableColumn<>("Підкатегорія");
+        incomeSubcategoryColumn.setCellValueFactory(new PropertyValueFactory<>("subcategory"));
+
+        TableColumn<Transaction, Long> incomeAmountColumn = new TableColumn<>("Сума");
+        incomeAmountColumn.setCellValueFactory(new PropertyValueFactory<>("amount"));
+        incomeAmountColumn.setCellFactory(tc -> new AmountTableCell<>());
+
+        incomeCategoryTableView.getColumns().addAll(List.of(incomeDateColumn, incomeCategoryColumn, incomeSubcategoryColumn, incomeAmountColumn));
+
+        return incomeCategoryTableView;
+    }
+
+    private TableView<Transaction> createExpenseCategoryTableView() {
+        TableView<Transaction> expenseCategoryTableView = new TableView<>();
+        expenseCategoryTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<Transaction, LocalDateTime> expenseDateColumn = new TableColumn<>("Дата та час");
+        expenseDateColumn.setCellValueFactory(new PropertyValueFactory<>("dateTime"));
+        expenseDateColumn.setCellFactory(column -> new TableCell<>() {
+            private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+            @Override
+            protected void updateItem(LocalDateTime item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(formatter.format(item));
+                }
+            }
+        });
+
+        TableColumn<Transaction, String> expenseCategoryColumn = new TableColumn<>("Категорія");
+        expenseCategoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
+
+        TableColumn<Transaction, String> expenseSubcategoryColumn = new TableColumn<>("Підкатегорія");
+        expenseSubcategoryColumn.setCellValueFactory(new PropertyValueFactory<>("subcategory"));
+
+        TableColumn<Transaction, Long> expenseAmountColumn = new TableColumn<>("Сума");
+        expenseAmountColumn.setCellValueFactory(new PropertyValueFactory<>("amount"));
+        expenseAmountColumn.setCellFactory(tc -> new AmountTableCell<>());
+
+        expenseCategoryTableView.getColumns().addAll(List.of(expenseDateColumn, expenseCategoryColumn, expenseSubcategoryColumn, expenseAmountColumn));
+
+        return expenseCategoryTableView;
+    }
+
+    private void updateIncomeCategoryTable() {
+        if (incomeCategoryTableView == null) {
+            return;
+        }
+        showCategoryRows(incomeCategoryTableView, "Income Table", AggregationCube.INCOME);
+        updateTotalLabel(incomeTotalLabel, "Income Total", AggregationCube.INCOME);
+    }
+
+    private void updateExpenseCategoryTable() {
+        if (expenseCategoryTableView == null) {
+            return;
+        }
+        showCategoryRows(expenseCategoryTableView, "Expense Table", AggregationCube.EXPENSE);
+        updateTotalLabel(expenseTotalLabel, "Expense Total", AggregationCube.EXPENSE);
+    }
+
+    private void showCategoryRows(TableView<Transaction> tableView, String view, String category) {
+        LocalDate from = rangeFrom;
+        LocalDate to = rangeTo;
+        submitAggregate(view, index -> index.categoryRows(category, from, to),
+                rows -> tableView.setItems(new RowSubsetList<>(historyList, rows)));
+    }
+
+    private void applyHistorySearch() {
+        String query = searchField.getText();
+        String category = historyCategoryFilter.getValue();
+        String filter = category == null || ALL_CATEGORIES.equals(category) ? null : category;
+        if (query.isBlank() && filter == null) {
+            aggregateWorker.cancel(HISTORY_SEARCH);
+            transactionHistoryTableView.setItems(historyList);
+            return;
+        }
+        submit(HISTORY_SEARCH, index -> index.search(query, filter),
+                rows -> transactionHistoryTableView.setItems(new RowSubsetList<>(historyList, rows)), () -> {
+                });
+    }
+
+    private void updateTotalLabel(Label totalLabel, String view, String category) {
+        LocalDate from = rangeFrom;
+        LocalDate to = rangeTo;
+        submitAggregate(view, index -> index.getAggregates().amount(category, from, to),
+                total -> updateTotalLabel(totalLabel, total));
+    }
+
+    private void updateTotalLabel(Label totalLabel, long totalAmount) {
+        totalLabel.setText(Money.format(totalAmount, new StringBuilder("Загальна сума: "), AmountTableCell.DECIMAL_SEPARATOR).toString());
+    }
+
+    public ScatterChart<String, Number> createScatterChart() {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        ScatterChart<String, Number> scatterChart = new ScatterChart<>(xAxis, yAxis);
+        scatterChart.setTitle("Scatter Chart");
+        return scatterChart;
+    }
+
+    public void updateScatterChart(ScatterChart<String, Number> scatterChart) {
+        if (scatterChart == null) {
+            return;
+        }
+        LocalDate from = rangeFrom;
+        LocalDate to = rangeTo;
+        submitAggregate("Scatter Chart", index -> AnalyticsAggregates.subcategoryTotals(index.getAggregates(), from, to),
+                totals -> fillScatterChart(scatterChart, totals));
+    }
+
+    private void fillScatterChart(ScatterChart<String, Number> scatterChart, Map<String, Long> subcategoryTotals) {
+        scatterChart.getData().clear();
+
+        for (Map.Entry<String, Long> entry : subcategoryTotals.entrySet()) {
+            String subcategory = entry.getKey();
+            double totalAmount = Money.toDouble(entry.getValue());
+
+            XYChart.Series<String, Number> series = new XYChart.Series<>();
+            series.setName(subcategory);
+
+            XYChart.Data<String, Number> dataPoint = new XYChart.Data<>(subcategory, totalAmount);
+            dataPoint.setNode(createDataPointNode(getRandomColor()));
+
+            series.getData().add(dataPoint);
+
+            scatterChart.getData().add(series);
+        }
+    }
+
+    private <R> void submitAggregate(String view, Function<LedgerIndex, R> computation,
+                                     Consumer<R> publisher) {
+        List<Object> viewKey = analyticsViewKey;
+        submit(view, computation, publisher, () -> {
+            if (viewKey != null) {
+                analyticsViews.remove(viewKey);
+            }
+        });
+    }
+
+    private <R> void submit(String view, Function<LedgerIndex, R> computation, Consumer<R> publisher,
+                            Runnable cancelled) {
+        Function<LedgerIndex, R> recordedComputation = index -> {
+            ViewRefreshEvent event = new ViewRefreshEvent();
+            event.begin();
+            R result = computation.apply(index);
+            commitRefresh(event, view, "compute", index.size());
+            return result;
+        };
+        Consumer<R> recordedPublisher = result -> {
+            ViewRefreshEvent event = new ViewRefreshEvent();
+            event.begin();
+            publisher.accept(result);
+            commitRefresh(event, view, "render", store.size());
+        };
+        aggregateWorker.submit(view, recordedComputation, recordedPublisher, cancelled);
+    }
+
+
+    private static void commitRefresh(ViewRefreshEvent event, String view, String phase, long rows) {
+        if (event.shouldCommit()) {
+            event.view = view;
+            event.phase = phase;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    private Node createDataPointNode(Paint color) {
+        Circle circle = new Circle(5); 
+        circle.setFill(color);
+        return circle;
+    }
+
+    private Paint getRandomColor() {
+        Random rand = new Random();
+        return Color.rgb(rand.nextInt(256), rand.nextInt(256), rand.nextInt(256));
+    }
+
+
+    private BarChart<String, Number> createBarChart() {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        BarChart<String, Number> chart = new BarChart<>(xAxis, yAxis);
+        chart.setTitle("Суммарні витрати та прибутки");
+        return chart;
+    }
+
+    private void updateBarChart(BarChart<String, Number> barChart) {
+        if (barChart == null) {
+            return;
+        }
+        LocalDate from = rangeFrom;
+        LocalDate to = rangeTo;
+        ChartResolution resolution = chartResolution;
+        int maxBuckets = Math.max(1, (int) (chartWidth(barChart) / PIXELS_PER_BAR_BUCKET));
+        submitAggregate("Bar Chart", index -> AnalyticsAggregates.bucketedTotals(index.getAggregates(), from, to, resolution, maxBuckets),
+                totals -> fillBarChart(barChart, totals));
+    }
+
+    private void fillBarChart(BarChart<String, Number> barChart, AnalyticsAggregates.BucketedTotals totals) {
+        barChart.getData().clear();
+
+        XYChart.Series<String, Number> expenseSeries = new XYChart.Series<>();
+        XYChart.Series<String, Number> incomeSeries = new XYChart.Series<>();
+
+        expenseSeries.setName("Витрати");
+        incomeSeries.setName("Прибуток");
+
+        ChartResolution resolution = totals.getResolution();
+        SortedSet<LocalDate> buckets = new TreeSet<>(totals.getExpenses().keySet());
+        buckets.addAll(totals.getIncomes().keySet());
+
+        List<String> bucketLabels = new ArrayList<>(buckets.size());
+        for (LocalDate bucket : buckets) {
+            bucketLabels.add(resolution.label(bucket));
+        }
+        CategoryAxis xAxis = (CategoryAxis) barChart.getXAxis();
+        xAxis.setCategories(FXCollections.observableArrayList(bucketLabels));
+
+        for (Map.Entry<LocalDate, Long> entry : totals.getExpenses().entrySet()) {
+            expenseSeries.getData().add(new XYChart.Data<>(resolution.label(entry.getKey()), Money.toDouble(entry.getValue())));
+        }
+        for (Map.Entry<LocalDate, Long> entry : totals.getIncomes().entrySet()) {
+            incomeSeries.getData().add(new XYChart.Data<>(resolution.label(entry.getKey()), Money.toDouble(entry.getValue())));
+        }
+
+        barChart.getData().addAll(List.of(expenseSeries, incomeSeries));
+    }
+
+    private static double chartWidth(XYChart<?, ?> chart) {
+        return chart.getWidth() > 0 ? chart.getWidth() : DEFAULT_CHART_WIDTH;
+    }
+
+
+    private String getUserInfo() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Авторизація");
+        dialog.setHeaderText("Будь ласка, введіть ваше ім'я та прізвище:");
+        dialog.setContentText("Ім'я та прізвище:");
+
+        String result = "";
+        while (result.isEmpty()) {
+            Optional<String> userInput = dialog.showAndWait();
+            if (userInput.isPresent()) {
+                result = userInput.get();
+                currentUser = result;
+            } else {
+                System.exit(0);
+            }
+        }
+        return result;
+    }
+
+    private void loadDataFromFile(File userFile, long length) {
+        if (!userFile.exists()) {
+            System.out.println("Файл не найден для пользователя: " + currentUser);
+            return;
+        }
+
+        LedgerLoadTask loadTask = new LedgerLoadTask(userFile.toPath(), length,
+                this::attachHistory, store::appendAll);
+        Node loadStatusBox = loadProgressBar.getParent();
+        loadProgressBar.progressProperty().bind(loadTask.progressProperty());
+        loadStatusLabel.textProperty().bind(loadTask.messageProperty());
+        loadStatusBox.setVisible(true);
+        loadProgressBar.setVisible(true);
+
+        addRecordButton.disableProperty().bind(loadTask.runningProperty());
+        importItem.disableProperty().bind(loadTask.runningProperty());
+        compactItem.disableProperty().bind(loadTask.runningProperty());
+        loadTask.setOnSucceeded(e -> {
+            loadProgressBar.setVisible(false);
+            checkpointer = new LedgerCheckpointer(userFile.toPath(),
+                    historyFile == null ? 0 : historyFile.getSourceLength(), CHECKPOINT_MIN_TAIL_BYTES,
+                    this::checkpointWritten, this::checkpointFailed);
+            takeCheckpoint();
+            if (checkpointTimeline == null) {
+                checkpointTimeline = new Timeline(new KeyFrame(Duration.seconds(CHECKPOINT_INTERVAL_SECONDS),
+                        event -> takeCheckpoint()));
+                checkpointTimeline.setCycleCount(Animation.INDEFINITE);
+                checkpointTimeline.play();
+            }
+        });
+        loadTask.setOnFailed(e -> {
+            loadStatusLabel.textProperty().unbind();
+            loadStatusLabel.setText("Помилка завантаження: " + loadTask.getException().getMessage());
+            loadTask.getException().printStackTrace();
+        });
+
+        Thread loadThread = new Thread(loadTask, "ledger-load");
+        loadThread.setDaemon(true);
+        loadThread.start();
+    }
+
+    private void rowsAppended(TransactionStore source, int from, int to) {
+        LedgerSnapshot rows = source.snapshot();
+        aggregateWorker.update(index -> index.append(rows, from, to));
+        ledgerVersion++;
+        refreshScheduler.markAllDirty();
+    }
+
+    private void reloadHistory(File userFile, long length) {
+        aggregateWorker.reset();
+        closeHistoryFile();
+        historyFile = null;
+        store = new TransactionStore();
+        historyList = new PagedTransactionList(store);
+        store.addListener(this::rowsAppended);
+        transactionHistoryTableView.setItems(historyList);
+        ledgerVersion++;
+        refreshScheduler.markAllDirty();
+        loadDataFromFile(userFile, length);
+    }
+
+    private void attachHistory(LedgerBinaryFile file) {
+        historyFile = file;
+        historyList.attach(file);
+        aggregateWorker.update(index -> index.attach(file));
+        ledgerVersion++;
+        refreshScheduler.markAllDirty();
+    }
+
+    private void takeCheckpoint() {
+        if (checkpointer == null || journal == null || importItem.isDisable() || compactItem.isDisable()) {
+            return;
+        }
+        flushJournal();
+        checkpointer.checkpoint(historyFile, store.snapshot(), journal.getCommittedOffset());
+    }
+
+    private void checkpointWritten(Path path) {
+        Platform.runLater(() -> swapHistory(path));
+    }
+
+    private void swapHistory(Path path) {
+        LedgerBinaryFile file;
+        try {
+            file = LedgerBinaryFile.open(path);
+        } catch (IOException e) {
+            checkpointFailed(e);
+            return;
+        }
+        int covered = file.getRowCount() - (historyFile == null ? 0 : historyFile.getRowCount());
+        if (checkpointer == null || importItem.isDisable() || compactItem.isDisable()
+                || covered < 0 || covered > store.size()) {
+            closeHistoryFile(file);
+            return;
+        }
+
+        TransactionStore tail = new TransactionStore();
+        tail.appendAll(store, covered);
+        LedgerBinaryFile previous = historyFile;
+        historyFile = file;
+        store = tail;
+        store.addListener(this::rowsAppended);
+        historyList.rebase(file, tail);
+        LedgerSnapshot rows = tail.snapshot();
+        aggregateWorker.reset();
+        aggregateWorker.update(index -> {
+            index.attach(file);
+            index.append(rows, 0, rows.size());
+        });
+        if (previous != null) {
+            closeHistoryFile(previous);
+            try {
+                Files.deleteIfExists(previous.getPath());
+            } catch (IOException e) {
+                System.err.println("Не вдалося видалити попередню контрольну точку: " + e.getMessage());
+            }
+        }
+    }
+
+    private void checkpointFailed(Exception exception) {
+        exception.printStackTrace();
+        Platform.runLater(() -> {
+            loadStatusLabel.textProperty().unbind();
+            loadStatusLabel.setText("Помилка контрольної точки: " + exception.getMessage());
+            loadStatusLabel.getParent().setVisible(true);
+        });
+    }
+
+    private void toggleFlightRecording(MenuItem recordingItem) {
+        if (flightRecording.isRunning()) {
+            Path recordingFile = stopFlightRecording();
+            recordingItem.setText("Почати запис JFR");
+            if (recordingFile != null) {
+                new Alert(Alert.AlertType.INFORMATION, "Запис збережено: " + recordingFile.toAbsolutePath()).show();
+            }
+            return;
+        }
+        try {
+            flightRecording.start();
+            recordingItem.setText("Зупинити запис JFR");
+        } catch (IOException | ParseException e) {
+            e.printStackTrace();
+            new Alert(Alert.AlertType.ERROR, "Не вдалося почати запис JFR: " + e.getMessage()).show();
+        }
+    }
+
+    private Path stopFlightRecording() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        try {
+            return flightRecording.stop(Paths.get("userdata", currentUser + "_" + timestamp + ".jfr"));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void importStatement() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Імпорт банківської виписки");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Виписки (CSV, OFX)", "*.csv", "*.ofx", "*.qfx"),
+                new FileChooser.ExtensionFilter("Усі файли", "*.*"));
+        File statementFile = fileChooser.showOpenDialog(primaryStage);
+        if (statementFile == null) {
+            return;
+        }
+
+        ImportRules rules;
+        try {
+            rules = ImportRules.load(Paths.get("userdata", "import_rules.txt"));
+        } catch (IOException e) {
+            e.printStackTrace();
+            new Alert(Alert.AlertType.ERROR, "Помилка у правилах імпорту: " + e.getMessage()).showAndWait();
+            return;
+        }
+
+        Path rejectedReport = Paths.get("userdata", currentUser + "_import_rejected.txt");
+        StatementImportTask importTask = new StatementImportTask(statementFile.toPath(), rules, journal, rejectedReport,
+                batch -> store.appendAll(batch));
+        Node loadStatusBox = loadProgressBar.getParent();
+        loadProgressBar.setVisible(true);
+        loadProgressBar.progressProperty().bind(importTask.progressProperty());
+        loadStatusLabel.textProperty().bind(importTask.messageProperty());
+        loadStatusBox.setVisible(true);
+        importItem.disableProperty().bind(importTask.runningProperty());
+
+        importTask.setOnSucceeded(e -> {
+            loadProgressBar.setVisible(false);
+            StatementImporter.Summary summary = importTask.getValue();
+            String message = "Імпортовано записів: " + summary.getImported() + "\nВідхилено: " + summary.getRejected();
+            if (summary.getRejected() > 0) {
+                message += "\nЗвіт про відхилені рядки: " + rejectedReport.toAbsolutePath();
+            }
+            new Alert(Alert.AlertType.INFORMATION, message).show();
+        });
+        importTask.setOnFailed(e -> {
+            loadProgressBar.setVisible(false);
+            loadStatusLabel.textProperty().unbind();
+            loadStatusLabel.setText("Помилка імпорту: " + importTask.getException().getMessage());
+            importTask.getException().printStackTrace();
+            new Alert(Alert.AlertType.ERROR, "Помилка імпорту: " + importTask.getException().getMessage()
+                    + "\nДодані записи збережено в історії, повторний імпорт створить дублікати "
+                    + "(їх прибере «Стиснути історію»).").show();
+        });
+
+        Thread importThread = new Thread(importTask, "statement-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    private void compactHistory(Path userDataPath) {
+        LedgerCheckpointer stoppedCheckpointer = checkpointer;
+        checkpointer = null;
+        Task<LedgerCompactor.Stats> compactionTask = new Task<>() {
+            @Override
+            protected LedgerCompactor.Stats call() throws Exception {
+                updateMessage("Стиснення історії...");
+                if (stoppedCheckpointer != null) {
+                    stoppedCheckpointer.close();
+                }
+                LedgerCompactor.Stats stats = journal != null ? journal.compact() : LedgerCompactor.compact(userDataPath);
+                updateMessage("Історію стиснено: " + stats);
+                return stats;
+            }
+        };
+        loadProgressBar.getParent().setVisible(true);
+        loadStatusLabel.textProperty().bind(compactionTask.messageProperty());
+        compactItem.disableProperty().bind(compactionTask.runningProperty());
+
+        compactionTask.setOnSucceeded(e -> {
+            LedgerCompactor.Stats stats = compactionTask.getValue();
+            new Alert(Alert.AlertType.INFORMATION, "Прочитано записів: " + stats.getRowsRead()
+                    + "\nВидалено дублікатів: " + stats.getDuplicateRows()
+                    + "\nЗвільнено: " + stats.getReclaimedBytes() / 1024 + " КБ").show();
+            reloadHistory(userDataPath.toFile(),
+                    journal != null ? journal.getCommittedOffset() : userDataPath.toFile().length());
+        });
+        compactionTask.setOnFailed(e -> {
+            checkpointer = new LedgerCheckpointer(userDataPath,
+                    historyFile == null ? 0 : historyFile.getSourceLength(), CHECKPOINT_MIN_TAIL_BYTES,
+                    this::checkpointWritten, this::checkpointFailed);
+            loadStatusLabel.textProperty().unbind();
+            loadStatusLabel.setText("Помилка стиснення: " + compactionTask.getException().getMessage());
+            compactionTask.getException().printStackTrace();
+        });
+
+        Thread compactionThread = new Thread(compactionTask, "ledger-compaction");
+        compactionThread.setDaemon(true);
+        compactionThread.start();
+    }
+
+    private void updateLineChart() {
+        if (lineChart == null) {
+            return;
+        }
+        LineChart<Number, Number> chart = lineChart;
+        LocalDate from = rangeFrom;
+        LocalDate to = rangeTo;
+        ChartResolution resolution = chartResolution;
+        int maxPoints = Math.max(3, (int) (chartWidth(chart) / PIXELS_PER_LINE_POINT));
+        submitAggregate("Line Chart", index -> linePoints(
+                        AnalyticsAggregates.balanceSeries(index.getAggregates(), from, to, resolution), maxPoints),
+                points -> fillLineChart(chart, points));
+    }
+
+    private static List<XYChart.Data<Number, Number>> linePoints(BalanceSeries balanceSeries, int maxPoints) {
+        long[] epochDays = balanceSeries.getEpochDays();
+        long[] balances = balanceSeries.getBalances();
+        int[] selected = SeriesDownsampler.largestTriangleThreeBuckets(epochDays, balances, maxPoints);
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(selected.length);
+        for (int point : selected) {
+            points.add(new XYChart.Data<>(epochDays[point], Money.toDouble(balances[point])));
+        }
+        return points;
+    }
+
+    private void fillLineChart(LineChart<Number, Number> lineChart, List<XYChart.Data<Number, Number>> points) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName("Баланс");
+        series.getData().setAll(points);
+
+        lineChart.getData().setAll(List.of(series));
+        lineChart.layout();
+    }
+
+
+    private long openJournal(File userDataFile) {
+        FsyncPolicy fsyncPolicy;
+        try {
+            fsyncPolicy = FsyncPolicy.parse(System.getProperty("financialaccounting.journal.fsync", "interval:200"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + ", використовується interval:200");
+            fsyncPolicy = FsyncPolicy.everyMillis(200);
+        }
+        try {
+            journal = new TransactionJournal(userDataFile.toPath(), fsyncPolicy);
+            return journal.getCommittedOffset();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return userDataFile.length();
+        }
+    }
+
+    private void closeHistoryFile() {
+        if (historyFile != null) {
+            closeHistoryFile(historyFile);
+        }
+    }
+
+    private static void closeHistoryFile(LedgerBinaryFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void flushJournal() {
+        if (journal != null) {
+            try {
+                journal.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void addTransaction(long amount, Category category, String subcategory, LocalDateTime dateTime) {
+        if (amount != 0 && category != null) {
+            String operationType = category.getName();
+            TextInputDialog descriptionDialog = new TextInputDialog();
+            descriptionDialog.setTitle("Додавання запису");
+            descriptionDialog.setHeaderText("Будь ласка, введіть опис операції (" + operationType + "):");
+            descriptionDialog.setContentText("Опис:");
+
+            Optional<String> descriptionResult = descriptionDialog.showAndWait();
+            if (descriptionResult.isPresent()) {
+                String description = descriptionResult.get();
+                AddTransactionEvent event = new AddTransactionEvent();
+                event.begin();
+                Transaction transaction = new Transaction(dateTime, category.getName(), subcategory, amount, description);
+                store.append(dateTime, category.getName(), subcategory, amount, description);
+                appendToJournal(transaction);
+                if (event.shouldCommit()) {
+                    event.category = category.getName();
+                    event.amount = amount;
+                    event.rows = store.size();
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private void updatePieChart() {
+        if (pieChart == null) {
+            return;
+        }
+        PieChart chart = pieChart;
+        LocalDate from = rangeFrom;
+        LocalDate to = rangeTo;
+        submitAggregate("Pie Chart", index -> AnalyticsAggregates.categoryTotals(index.getAggregates(), from, to),
+                totals -> fillPieChart(chart, totals));
+    }
+
+    private void fillPieChart(PieChart pieChart, Map<String, Long> categoryBalances) {
+        double totalBalance = categoryBalances.values().stream().mapToLong(Long::longValue).sum();
+
+        pieChart.getData().clear();
+
+        for (Map.Entry<String, Long> categoryEntry : categoryBalances.entrySet()) {
+            String category = categoryEntry.getKey();
+            double balance = categoryEntry.getValue();
+            double percentage = (balance / totalBalance) * 100;
+            String categoryLabel = category + " (" + String.format("%.2f%%", percentage) + ")";
+            PieChart.Data categoryData = new PieChart.Data(categoryLabel, Math.abs(percentage));
+            pieChart.getData().add(categoryData);
+        }
+    }
+
+    private void appendToJournal(Transaction transaction) {
+        if (journal != null) {
+            try {
+                journal.append(transaction.toRecordString());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private TableView<Transaction> createTransactionHistoryTableView() {
+        historyList = new PagedTransactionList(store);
+        TableView<Transaction> tableView = new TableView<>(historyList);
+        tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<Transaction, LocalDateTime> dateColumn = new TableColumn<>("Дата та час");
+        dateColumn.setCellValueFactory(new PropertyValueFactory<>("dateTime"));
+        dateColumn.setCellFactory(column -> new TableCell<>() {
+            private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+            @Override
+            protected void updateItem(LocalDateTime item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(formatter.format(item));
+                }
+            }
+        });
+
+        TableColumn<Transaction, String> categoryColumn = new TableColumn<>("Категорія");
+        categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
+
+        TableColumn<Transaction, String> subcategoryColumn = new TableColumn<>("Підкатегорія");
+        subcategoryColumn.setCellValueFactory(new PropertyValueFactory<>("subcategory"));
+
+        TableColumn<Transaction, Long> amountColumn = new TableColumn<>("Сума");
+        amountColumn.setCellValueFactory(new PropertyValueFactory<>("amount"));
+        amountColumn.setCellFactory(tc -> new AmountTableCell<>());
+
+        TableColumn<Transaction, String> descriptionColumn = new TableColumn<>("Опис");
+        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
+        dateColumn.setPrefWidth(125); 
+        categoryColumn.setPrefWidth(80); 
+        subcategoryColumn.setPrefWidth(125);
+        amountColumn.setPrefWidth(70); 
+        descriptionColumn.setPrefWidth(180); 
+
+        for (TableColumn<Transaction, ?> column : List.of(dateColumn, categoryColumn, subcategoryColumn, amountColumn, descriptionColumn)) {
+            column.setSortable(false);
+        }
+
+
+        tableView.getColumns().addAll(List.of(dateColumn, categoryColumn, subcategoryColumn, amountColumn, descriptionColumn));
+        return tableView;
+    }
+
+    private TableView<BalanceCategory> createBalanceTableView() {
+        TableView<BalanceCategory> tableView = new TableView<>();
+        tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<BalanceCategory, String> categoryColumn = new TableColumn<>("Місяць");
+        categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
+
+        TableColumn<BalanceCategory, Long> incomeColumn = new TableColumn<>("Дохід");
+        incomeColumn.setCellValueFactory(new PropertyValueFactory<>("totalIncome"));
+        incomeColumn.setCellFactory(tc -> new AmountTableCell<>());
+
+        TableColumn<BalanceCategory, Long> expenseColumn = new TableColumn<>("Витрата");
+        expenseColumn.setCellValueFactory(new PropertyValueFactory<>("totalExpense"));
+        expenseColumn.setCellFactory(tc -> new AmountTableCell<>());
+
+        TableColumn<BalanceCategory, Long> balanceColumn = new TableColumn<>("Баланс");
+        balanceColumn.setCellValueFactory(new PropertyValueFactory<>("totalBalance"));
+        balanceColumn.setCellFactory(tc -> new AmountTableCell<>());
+
+        tableView.getColumns().addAll(List.of(categoryColumn, incomeColumn, expenseColumn, balanceColumn));
+
+        return tableView;
+    }
+
+    private void updateBalanceTable() {
+        if (balanceTableView == null) {
+            return;
+        }
+        TableView<BalanceCategory> tableView = balanceTableView;
+        LocalDate from = rangeFrom;
+        LocalDate to = rangeTo;
+        submitAggregate("Balance Table", index -> AnalyticsAggregates.monthOfYearTotals(index.getAggregates(), from, to),
+                totals -> fillBalanceTable(tableView, totals[0], totals[1]));
+    }
+
+    private void fillBalanceTable(TableView<BalanceCategory> balanceTableView, long[] incomeByMonth, long[] expenseByMonth) {
+        List<BalanceCategory> monthBalanceCategories = new ArrayList<>();
+
+        List<String> monthLabels = Arrays.asList("Січень", "Лютий", "Березень", "Квітень", "Травень", "Червень",
+                "Липень", "Серпень", "Вересень", "Жовтень", "Листопад", "Грудень");
+
+        for (int i = 0; i < 12; i++) {
+            long totalIncomeForMonth = incomeByMonth[i];
+            long totalExpenseForMonth = expenseByMonth[i];
+            long totalBalanceForMonth = totalIncomeForMonth - totalExpenseForMonth;
+
+            BalanceCategory monthBalanceCategory = new BalanceCategory(monthLabels.get(i));
+            monthBalanceCategory.setTotalIncome(totalIncomeForMonth);
+            monthBalanceCategory.setTotalExpense(totalExpenseForMonth);
+            monthBalanceCategory.setTotalBalance(totalBalanceForMonth);
+
+            monthBalanceCategories.add(monthBalanceCategory);
+        }
+
+        balanceTableView.getItems().setAll(monthBalanceCategories);
+    }
+
+    public static class BalanceCategory {
+        private String category;
+        private long totalIncome;
+        private long totalExpense;
+        private long totalBalance;
+
+        public BalanceCategory(String category) {
+            this.category = category;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public long getTotalIncome() {
+            return totalIncome;
+        }
+
+        public void setTotalIncome(long totalIncome) {
+            this.totalIncome = totalIncome;
+        }
+
+        public long getTotalExpense() {
+            return totalExpense;
+        }
+
+        public void setTotalExpense(long totalExpense) {
+            this.totalExpense = totalExpense;
+        }
+
+        public long getTotalBalance() {
+            return totalBalance;
+        }
+
+        public void setTotalBalance(long totalBalance) {
+            this.totalBalance = totalBalance;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.dniprotech.financialaccounting;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+public class FlightRecording {
+    private Recording recording;
+
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    public void start() throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName("FinancialAccounting");
+        recording.setToDisk(true);
+        recording.start();
+    }
+
+    public Path stop(Path target) throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        try {
+            recording.stop();
+            recording.dump(target);
+            return target;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.dniprotech.financialaccounting;
+
+import com.dniprotech.financialaccounting.ledger.LedgerBinaryFile;
+import com.dniprotech.financialaccounting.ledger.LedgerBinaryConverter;
+import com.dniprotech.financialaccounting.ledger.LedgerLoadEvent;
+import com.dniprotech.financialaccounting.ledger.MalformedRecordListener;
+import com.dniprotech.financialaccounting.ledger.ParallelTransactionLoader;
+import com.dniprotech.financialaccounting.ledger.TransactionRecord;
+import com.dniprotech.financialaccounting.ledger.TransactionRecordReader;
+import com.dniprotech.financialaccounting.ledger.TransactionStore;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class LedgerLoadTask extends Task<Long> {
+    private static final int BATCH_SIZE = 10_000;
+    private static final long PARALLEL_THRESHOLD = 32L * 1024 * 1024;
+
+    private final Path path;
+    private final long length;
+    private final Consumer<LedgerBinaryFile> checkpointConsumer;
+    private final Consumer<TransactionStore> batchConsumer;
+    private TransactionStore batch = new TransactionStore();
+    private String source = "text";
+
+    public LedgerLoadTask(Path path, long length, Consumer<TransactionStore> batchConsumer) {
+        this(path, length, null, batchConsumer);
+    }
+
+    public LedgerLoadTask(Path path, long length, Consumer<LedgerBinaryFile> checkpointConsumer,
+                          Consumer<TransactionStore> batchConsumer) {
+        this.path = path;
+        this.length = length;
+        this.checkpointConsumer = checkpointConsumer;
+        this.batchConsumer = batchConsumer;
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        LedgerLoadEvent event = new LedgerLoadEvent();
+        event.begin();
+        long count = load();
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.source = source;
+            event.records = count;
+            event.bytes = length;
+            event.commit();
+        }
+        return count;
+    }
+
+    private long load() throws Exception {
+        if (!Files.exists(path)) {
+            updateMessage("Файл не знайдено: " + path.getFileName());
+            return 0;
+        }
+
+        Path binaryPath = LedgerBinaryFile.latestCheckpoint(path, length);
+        long checkpointLength = binaryPath == null ? -1 : LedgerBinaryFile.coveredLength(binaryPath, path, length);
+        if (checkpointConsumer != null) {
+            for (Path locked : LedgerBinaryFile.deleteGenerationsExcept(path, binaryPath)) {
+                System.err.println("Не вдалося видалити застарілу контрольну точку: " + locked);
+            }
+        }
+        if (checkpointLength >= 0 && checkpointConsumer != null) {
+            source = checkpointLength < length ? "checkpoint+tail" : "checkpoint";
+            long count = loadBinary(binaryPath);
+            if (checkpointLength < length) {
+                count += replayTail(checkpointLength, count);
+            }
+            return count;
+        }
+
+        long totalBytes = Math.max(1, Math.min(length, Files.size(path)));
+        if (checkpointConsumer != null) {
+            try {
+                binaryPath = LedgerBinaryFile.nextGenerationPath(path);
+                convert(binaryPath, totalBytes);
+                source = "converted";
+                return loadBinary(binaryPath);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        updateMessage("Завантаження історії...");
+        updateProgress(0, totalBytes);
+        if (useParallelLoading(totalBytes)) {
+            source = "parallel";
+            return loadParallel(totalBytes);
+        }
+
+        try (TransactionRecordReader reader = new TransactionRecordReader(path, length)) {
+            long count = readSequential(reader, 0, totalBytes);
+            String message = "Завантажено записів: " + count;
+            if (reader.getMalformedCount() > 0) {
+                message += ", пропущено некоректних: " + reader.getMalformedCount();
+            }
+            updateMessage(message);
+            return count;
+        }
+    }
+
+    private void convert(Path binaryPath, long totalBytes) throws IOException {
+        updateMessage("Перетворення історії у бінарний формат...");
+        updateProgress(0, totalBytes);
+        MalformedRecordListener malformedListener = (lineNumber, line, reason) ->
+                System.err.println("Некоректний запис у рядку " + lineNumber + ": " + reason);
+        try (LedgerBinaryConverter converter = new LedgerBinaryConverter(binaryPath)) {
+            try {
+                if (useParallelLoading(totalBytes)) {
+                    new ParallelTransactionLoader().load(path, length, record -> record,
+                            (List<TransactionRecord> chunk) -> chunk.forEach(converter::addUnchecked),
+                            malformedListener, position -> updateProgress(position, totalBytes));
+                } else {
+                    try (TransactionRecordReader reader = new TransactionRecordReader(path, length)) {
+                        reader.read(record -> {
+                            converter.addUnchecked(record);
+                            if (converter.getRowCount() % BATCH_SIZE == 0) {
+                                updateProgress(reader.getPosition(), totalBytes);
+                            }
+                        }, malformedListener);
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            updateMessage("Запис бінарної історії...");
+            converter.write(length, LedgerBinaryFile.sourceChecksum(path, length));
+        }
+    }
+
+    private long replayTail(long checkpointLength, long checkpointRows) throws IOException {
+        updateMessage("Відтворення журналу після контрольної точки...");
+        try (TransactionRecordReader reader = new TransactionRecordReader(path, checkpointLength, length)) {
+            long count = readSequential(reader, checkpointLength, length);
+            String message = "Завантажено записів: " + (checkpointRows + count) + " (з журналу: " + count + ")";
+            if (reader.getMalformedCount() > 0) {
+                message += ", пропущено некоректних: " + reader.getMalformedCount();
+            }
+            updateMessage(message);
+            return count;
+        }
+    }
+
+    private long readSequential(TransactionRecordReader reader, long start, long end) throws IOException {
+        long total = Math.max(1, end - start);
+        long count = reader.read(record -> {
+            append(record);
+            if (batch.size() >= BATCH_SIZE) {
+                publish();
+                updateProgress(reader.getPosition() - start, total);
+            }
+        }, (lineNumber, line, reason) -> System.err.println("Некоректний запис у рядку " + lineNumber + ": " + reason));
+        publish();
+        updateProgress(total, total);
+        return count;
+    }
+
+    private long loadParallel(long totalBytes) throws IOException {
+        long[] malformedCount = {0};
+        long count = new ParallelTransactionLoader().load(path, length, record -> record, (List<TransactionRecord> chunk) -> {
+            for (TransactionRecord record : chunk) {
+                append(record);
+            }
+            publish();
+        }, (lineNumber, line, reason) -> {
+            malformedCount[0]++;
+            System.err.println("Некоректний запис у рядку " + lineNumber + ": " + reason);
+        }, position -> updateProgress(position, totalBytes));
+
+        String message = "Завантажено записів: " + count;
+        if (malformedCount[0] > 0) {
+            message += ", пропущено некоректних: " + malformedCount[0];
+        }
+        updateMessage(message);
+        return count;
+    }
+
+    private static boolean useParallelLoading(long totalBytes) {
+        String mode = System.getProperty("financialaccounting.load.mode", "auto");
+        if ("parallel".equals(mode)) {
+            return true;
+        }
+        if ("sequential".equals(mode)) {
+            return false;
+        }
+        return totalBytes >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    private long loadBinary(Path binaryPath) throws IOException {
+        updateMessage("Завантаження бінарної історії...");
+        LedgerBinaryFile ledger = LedgerBinaryFile.open(binaryPath);
+        int rowCount = ledger.getRowCount();
+        Platform.runLater(() -> checkpointConsumer.accept(ledger));
+        updateProgress(1, 1);
+        updateMessage("Завантажено записів: " + rowCount);
+        return rowCount;
+    }
+
+    private void publish() {
+        if (batch.size() == 0 || isCancelled()) {
+            return;
+        }
+        TransactionStore published = batch;
+        batch = new TransactionStore();
+        Platform.runLater(() -> batchConsumer.accept(published));
+    }
+
+    private void append(TransactionRecord record) {
+        batch.append(LocalDateTime.of(record.getDate(), record.getTime()), record.getCategory(),
+                record.getSubcategory(), record.getAmount(), record.getDescription());
+    }
+}
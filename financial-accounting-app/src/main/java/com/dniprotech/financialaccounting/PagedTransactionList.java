@@ -0,0 +1,127 @@
+package com.dniprotech.financialaccounting;
+
+import com.dniprotech.financialaccounting.ledger.LedgerBinaryFile;
+import com.dniprotech.financialaccounting.ledger.Transaction;
+import com.dniprotech.financialaccounting.ledger.TransactionStore;
+import javafx.collections.ObservableListBase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PagedTransactionList extends ObservableListBase<Transaction> {
+    public static final int DEFAULT_PAGE_SIZE = 256;
+    public static final int DEFAULT_MAX_PAGES = 64;
+
+    private final TransactionStore.Listener storeListener = this::rowsAppended;
+    private TransactionStore store;
+    private LedgerBinaryFile file;
+    private int fileRows;
+    private final int pageSize;
+    private final Map<Integer, Transaction[]> pages;
+    private int size;
+
+    public PagedTransactionList(TransactionStore store) {
+        this(store, null);
+    }
+
+    public PagedTransactionList(TransactionStore store, LedgerBinaryFile file) {
+        this(store, file, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagedTransactionList(TransactionStore store, LedgerBinaryFile file, int pageSize, int maxPages) {
+        this.store = store;
+        this.file = file;
+        this.fileRows = file == null ? 0 : file.getRowCount();
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(maxPages * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Transaction[]> eldest) {
+                return size() > maxPages;
+            }
+        };
+        this.size = fileRows + store.size();
+        store.addListener(storeListener);
+    }
+
+    private void rowsAppended(TransactionStore source, int from, int to) {
+        int newSize = fileRows + source.size();
+        if (newSize > size) {
+            int oldSize = size;
+            size = newSize;
+            beginChange();
+            nextAdd(oldSize, newSize);
+            endChange();
+        }
+    }
+
+    public void attach(LedgerBinaryFile file) {
+        if (this.file != null || store.size() > 0) {
+            throw new IllegalStateException("Контрольну точку можна підключити лише до порожньої історії");
+        }
+        this.file = file;
+        fileRows = file.getRowCount();
+        pages.clear();
+        int oldSize = size;
+        size = fileRows + store.size();
+        if (size > oldSize) {
+            beginChange();
+            nextAdd(oldSize, size);
+            endChange();
+        }
+    }
+
+    public void rebase(LedgerBinaryFile file, TransactionStore store) {
+        if (file.getRowCount() + store.size() != size) {
+            throw new IllegalStateException("Контрольна точка не відповідає поточній історії");
+        }
+        this.store.removeListener(storeListener);
+        this.store = store;
+        this.file = file;
+        fileRows = file.getRowCount();
+        store.addListener(storeListener);
+    }
+
+    @Override
+    public Transaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int pageIndex = index / pageSize;
+        int offset = index - pageIndex * pageSize;
+        Transaction[] page = pages.get(pageIndex);
+        if (page == null || offset >= page.length) {
+            page = loadPage(pageIndex);
+            pages.put(pageIndex, page);
+        }
+        return page[offset];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    private Transaction[] loadPage(int pageIndex) {
+        int from = pageIndex * pageSize;
+        int to = Math.min(from + pageSize, size);
+        Transaction[] page = new Transaction[to - from];
+        for (int row = from; row < to; row++) {
+            page[row - from] = row < fileRows ? fromFile(row) : fromStore(row - fileRows);
+        }
+        return page;
+    }
+
+    private Transaction fromFile(int row) {
+        return new Transaction(file.dateTime(row), file.category(row), file.subcategory(row),
+                file.amountMinor(row), file.description(row));
+    }
+
+    private Transaction fromStore(int row) {
+        return new Transaction(store.dateTime(row), store.category(row), store.subcategory(row),
+                store.amountMinor(row), store.description(row));
+    }
+}
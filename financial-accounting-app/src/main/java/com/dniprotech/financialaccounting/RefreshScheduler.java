@@ -0,0 +1,78 @@
+package com.dniprotech.financialaccounting;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+public class RefreshScheduler {
+    private final Map<String, View> views = new LinkedHashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled = false;
+            refreshDirty();
+        }
+    };
+    private boolean scheduled;
+    private long refreshCount;
+
+    public void register(String name, BooleanSupplier shown, Runnable refresh) {
+        views.put(name, new View(shown, refresh));
+    }
+
+    public void markDirty(String name) {
+        if (!views.containsKey(name)) {
+            return;
+        }
+        dirty.add(name);
+        schedule();
+    }
+
+    public void markAllDirty() {
+        dirty.addAll(views.keySet());
+        schedule();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            timer.start();
+        }
+    }
+
+    private void refreshDirty() {
+        String[] names = dirty.toArray(new String[0]);
+        dirty.clear();
+        for (String name : names) {
+            View view = views.get(name);
+            if (view.shown.getAsBoolean()) {
+                refreshCount++;
+                try {
+                    view.refresh.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static final class View {
+        private final BooleanSupplier shown;
+        private final Runnable refresh;
+
+        private View(BooleanSupplier shown, Runnable refresh) {
+            this.shown = shown;
+            this.refresh = refresh;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dniprotech.financialaccounting;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.List;
+
+public class RowSubsetList<E> extends ObservableListBase<E> {
+    private final List<E> source;
+    private final int[] rows;
+
+    public RowSubsetList(List<E> source, int[] rows) {
+        this.source = source;
+        this.rows = rows;
+    }
+
+    @Override
+    public E get(int index) {
+        return source.get(rows[index]);
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+}
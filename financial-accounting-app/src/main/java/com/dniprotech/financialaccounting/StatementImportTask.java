@@ -0,0 +1,105 @@
+package com.dniprotech.financialaccounting;
+
+import com.dniprotech.financialaccounting.ledger.ImportRules;
+import com.dniprotech.financialaccounting.ledger.StatementImporter;
+import com.dniprotech.financialaccounting.ledger.TransactionJournal;
+import com.dniprotech.financialaccounting.ledger.TransactionRecord;
+import com.dniprotech.financialaccounting.ledger.TransactionStore;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class StatementImportTask extends Task<StatementImporter.Summary> {
+    private final Path statement;
+    private final ImportRules rules;
+    private final TransactionJournal journal;
+    private final Path rejectedReport;
+    private final Consumer<TransactionStore> batchConsumer;
+    private volatile long committed;
+
+    public StatementImportTask(Path statement, ImportRules rules, TransactionJournal journal, Path rejectedReport,
+                               Consumer<TransactionStore> batchConsumer) {
+        this.statement = statement;
+        this.rules = rules;
+        this.journal = journal;
+        this.rejectedReport = rejectedReport;
+        this.batchConsumer = batchConsumer;
+    }
+
+    @Override
+    protected StatementImporter.Summary call() throws Exception {
+        long totalBytes = Math.max(1, Files.size(statement));
+        updateMessage("Імпорт виписки " + statement.getFileName() + "...");
+        updateProgress(0, totalBytes);
+
+        StatementImporter.Summary summary;
+        try (BufferedWriter report = Files.newBufferedWriter(rejectedReport, StandardCharsets.UTF_8)) {
+            summary = new StatementImporter(rules).importFile(statement, this::commit, (lineNumber, line, reason) -> {
+                try {
+                    report.write("Рядок " + lineNumber + ": " + reason + " | " + line.replace('\n', ' '));
+                    report.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, position -> updateProgress(position, totalBytes));
+            if (journal != null) {
+                journal.flush();
+            }
+        } catch (Exception e) {
+            Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+            if (journal != null) {
+                try {
+                    journal.flush();
+                } catch (IOException flushFailure) {
+                    cause.addSuppressed(flushFailure);
+                }
+            }
+            throw new IOException("Імпорт перервано, до журналу вже додано записів: " + committed + " ("
+                    + cause.getMessage() + ")", cause);
+        }
+        if (summary.getRejected() == 0) {
+            Files.deleteIfExists(rejectedReport);
+        }
+
+        updateProgress(totalBytes, totalBytes);
+        updateMessage(String.format("Імпортовано записів: %d, відхилено: %d (%.1f МБ/с)", summary.getImported(),
+                summary.getRejected(), summary.getMegabytesPerSecond()));
+        return summary;
+    }
+
+    private void commit(List<TransactionRecord> records) {
+        if (isCancelled()) {
+            throw new IllegalStateException("Імпорт скасовано");
+        }
+        TransactionStore batch = new TransactionStore();
+        try {
+            for (TransactionRecord record : records) {
+                if (journal != null) {
+                    journal.append(record.toRecordString());
+                }
+                batch.append(LocalDateTime.of(record.getDate(), record.getTime()), record.getCategory(),
+                        record.getSubcategory(), record.getAmount(), record.getDescription());
+                committed++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (batch.size() > 0) {
+                Platform.runLater(() -> batchConsumer.accept(batch));
+            }
+        }
+    }
+
+    public long getCommitted() {
+        return committed;
+    }
+}
@@ -0,0 +1,20 @@
+package com.dniprotech.financialaccounting;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dniprotech.financialaccounting.ViewRefresh")
+@Label("Оновлення подання")
+@Category({"Financial Accounting", "UI"})
+public class ViewRefreshEvent extends Event {
+    @Label("Подання")
+    public String view;
+
+    @Label("Етап")
+    public String phase;
+
+    @Label("Записів")
+    public long rows;
+}
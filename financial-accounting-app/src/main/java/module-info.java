@@ -2,6 +2,8 @@ module com.dniprotech.financialaccounting {
     requires javafx.controls;
     requires javafx.fxml;
     requires com.fasterxml.jackson.databind;
+    requires com.dniprotech.financialaccounting.ledger;
+    requires jdk.jfr;
 
 
     opens com.dniprotech.financialaccounting to javafx.fxml;
@@ -0,0 +1,75 @@
+package com.dniprotech.financialaccounting.benchmarks;
+
+import com.dniprotech.financialaccounting.ledger.AggregationCube;
+import com.dniprotech.financialaccounting.ledger.AnalyticsAggregates;
+import com.dniprotech.financialaccounting.ledger.BalanceSeries;
+import com.dniprotech.financialaccounting.ledger.ChartResolution;
+import com.dniprotech.financialaccounting.ledger.LedgerSnapshot;
+import com.dniprotech.financialaccounting.ledger.SeriesDownsampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AggregationBenchmark {
+    private static final int CHART_BUCKETS = 60;
+    private static final int LINE_POINTS = 400;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private LedgerSnapshot snapshot;
+    private AggregationCube cube;
+
+    @Setup
+    public void setUp() {
+        snapshot = LedgerFixtures.store(rows).snapshot();
+        cube = new AggregationCube();
+        cube.addAll(snapshot, 0, snapshot.size());
+    }
+
+    @Benchmark
+    public AggregationCube buildCube() {
+        AggregationCube built = new AggregationCube();
+        built.addAll(snapshot, 0, snapshot.size());
+        return built;
+    }
+
+    @Benchmark
+    public long[][] balanceTable() {
+        return AnalyticsAggregates.monthOfYearTotals(cube, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Long> pieChart() {
+        return AnalyticsAggregates.categoryTotals(cube, null, null);
+    }
+
+    @Benchmark
+    public AnalyticsAggregates.BucketedTotals barChart() {
+        return AnalyticsAggregates.bucketedTotals(cube, null, null, ChartResolution.AUTO, CHART_BUCKETS);
+    }
+
+    @Benchmark
+    public Map<String, Long> scatterChart() {
+        return AnalyticsAggregates.subcategoryTotals(cube, null, null);
+    }
+
+    @Benchmark
+    public int[] lineChart() {
+        BalanceSeries series = AnalyticsAggregates.balanceSeries(cube, null, null, ChartResolution.AUTO);
+        return SeriesDownsampler.largestTriangleThreeBuckets(series.getEpochDays(), series.getBalances(), LINE_POINTS);
+    }
+}
@@ -0,0 +1,64 @@
+package com.dniprotech.financialaccounting.benchmarks;
+
+import com.dniprotech.financialaccounting.ledger.AggregationCube;
+import com.dniprotech.financialaccounting.ledger.TransactionRecord;
+import com.dniprotech.financialaccounting.ledger.TransactionStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+final class LedgerFixtures {
+    static final long SEED = 20230101L;
+
+    private static final String[] EXPENSES = {"Комунальні послуги", "Їжа", "Розваги", "Одяг", "Кредит", "Депозит"};
+    private static final String[] INCOMES = {"Заробітна плата", "Дивіденди", "Подарунок"};
+    private static final String[] WORDS = {"АТБ", "Сільпо", "оренда", "кава", "квитки", "аптека", "таксі", "переказ",
+            "премія", "ринок", "кіно", "світло"};
+    private static final long START = LocalDateTime.of(2014, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long SPAN = 10L * 365 * 86_400;
+
+    private LedgerFixtures() {
+    }
+
+    static TransactionStore store(int rows) {
+        TransactionStore store = new TransactionStore();
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int row = 0; row < rows; row++) {
+            boolean income = random.nextInt(10) == 0;
+            long epochSecond = START + SPAN * row / rows + random.nextInt(3600);
+            store.append(epochSecond, income ? AggregationCube.INCOME : AggregationCube.EXPENSE,
+                    income ? INCOMES[random.nextInt(INCOMES.length)] : EXPENSES[random.nextInt(EXPENSES.length)],
+                    income ? 100_000 + random.nextLong(2_000_000) : 100 + random.nextLong(300_000),
+                    WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1000));
+        }
+        return store;
+    }
+
+    static String line(TransactionStore store, int row) {
+        return TransactionRecord.format(store.dateTime(row), store.category(row), store.subcategory(row),
+                store.amountMinor(row), store.description(row));
+    }
+
+    static String[] lines(TransactionStore store) {
+        String[] lines = new String[store.size()];
+        for (int row = 0; row < lines.length; row++) {
+            lines[row] = line(store, row);
+        }
+        return lines;
+    }
+
+    static void write(TransactionStore store, Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int row = 0; row < store.size(); row++) {
+                writer.write(line(store, row));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.dniprotech.financialaccounting.benchmarks;
+
+import com.dniprotech.financialaccounting.ledger.LedgerBinaryFile;
+import com.dniprotech.financialaccounting.ledger.LedgerCheckpointer;
+import com.dniprotech.financialaccounting.ledger.LedgerIndex;
+import com.dniprotech.financialaccounting.ledger.ParallelTransactionLoader;
+import com.dniprotech.financialaccounting.ledger.TransactionRecord;
+import com.dniprotech.financialaccounting.ledger.TransactionRecordReader;
+import com.dniprotech.financialaccounting.ledger.TransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class LedgerLoadBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private Path directory;
+    private Path ledger;
+    private Path checkpoint;
+    private long length;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ledger-load");
+        ledger = directory.resolve("bench_transactions.txt");
+        TransactionStore store = LedgerFixtures.store(rows);
+        LedgerFixtures.write(store, ledger);
+        length = Files.size(ledger);
+        checkpoint = LedgerCheckpointer.write(null, store.snapshot(), ledger, length);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(checkpoint);
+        Files.deleteIfExists(ledger);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public TransactionStore sequentialText() throws IOException {
+        TransactionStore store = new TransactionStore();
+        try (TransactionRecordReader reader = new TransactionRecordReader(ledger, length)) {
+            reader.read(record -> append(store, record), null);
+        }
+        return store;
+    }
+
+    @Benchmark
+    public TransactionStore parallelText() throws IOException {
+        TransactionStore store = new TransactionStore();
+        new ParallelTransactionLoader().load(ledger, length, record -> record, (List<TransactionRecord> chunk) -> {
+            for (TransactionRecord record : chunk) {
+                append(store, record);
+            }
+        }, null, null);
+        return store;
+    }
+
+    @Benchmark
+    public LedgerIndex binaryCheckpoint() throws IOException {
+        LedgerIndex index = new LedgerIndex();
+        try (LedgerBinaryFile file = LedgerBinaryFile.open(checkpoint)) {
+            index.attach(file);
+        }
+        return index;
+    }
+
+    private static void append(TransactionStore store, TransactionRecord record) {
+        store.append(LocalDateTime.of(record.getDate(), record.getTime()), record.getCategory(),
+                record.getSubcategory(), record.getAmount(), record.getDescription());
+    }
+}
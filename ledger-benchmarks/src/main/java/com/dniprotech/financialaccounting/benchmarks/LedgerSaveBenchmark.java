@@ -0,0 +1,74 @@
+package com.dniprotech.financialaccounting.benchmarks;
+
+import com.dniprotech.financialaccounting.ledger.FsyncPolicy;
+import com.dniprotech.financialaccounting.ledger.Transaction;
+import com.dniprotech.financialaccounting.ledger.TransactionJournal;
+import com.dniprotech.financialaccounting.ledger.TransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class LedgerSaveBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private TransactionStore store;
+    private Path journalPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        store = LedgerFixtures.store(rows);
+        journalPath = Files.createTempFile("ledger-save", ".txt");
+    }
+
+    @Setup(Level.Invocation)
+    public void truncateJournal() throws IOException {
+        Files.write(journalPath, new byte[0]);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(journalPath);
+    }
+
+    @Benchmark
+    public void toRecordString(Blackhole blackhole) {
+        for (int row = 0; row < store.size(); row++) {
+            blackhole.consume(transaction(row).toRecordString());
+        }
+    }
+
+    @Benchmark
+    public long appendToJournal() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(journalPath, FsyncPolicy.everyMillis(200))) {
+            for (int row = 0; row < store.size(); row++) {
+                journal.append(transaction(row).toRecordString());
+            }
+            journal.flush();
+            return journal.getCommittedOffset();
+        }
+    }
+
+    private Transaction transaction(int row) {
+        return new Transaction(store.dateTime(row), store.category(row), store.subcategory(row),
+                store.amountMinor(row), store.description(row));
+    }
+}
@@ -0,0 +1,38 @@
+package com.dniprotech.financialaccounting.benchmarks;
+
+import com.dniprotech.financialaccounting.ledger.TransactionRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RecordParseBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private String[] lines;
+
+    @Setup
+    public void setUp() {
+        lines = LedgerFixtures.lines(LedgerFixtures.store(rows));
+    }
+
+    @Benchmark
+    public void fromString(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(TransactionRecord.fromString(line));
+        }
+    }
+}
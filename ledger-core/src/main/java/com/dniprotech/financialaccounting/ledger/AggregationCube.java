@@ -0,0 +1,261 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class AggregationCube {
+    public static final String INCOME = "Прибуток";
+    public static final String EXPENSE = "Витрата";
+
+    private final Totals grandTotal = new Totals();
+    private final Map<String, Totals> categoryTotals = new LinkedHashMap<>();
+    private final Map<String, Map<String, Totals>> subcategoryTotals = new LinkedHashMap<>();
+    private final Map<String, Totals[]> monthOfYearTotals = new HashMap<>();
+    private final Map<YearMonth, Map<String, Totals>> monthTotals = new HashMap<>();
+    private final NavigableMap<LocalDate, Map<String, Totals>> dayTotals = new TreeMap<>();
+    private final NavigableMap<LocalDate, Map<String, Map<String, Totals>>> cells = new TreeMap<>();
+    private final BalanceIndex balances = new BalanceIndex();
+
+    public void add(LocalDate date, String category, String subcategory, long amount) {
+        apply(date, category, subcategory, amount, 1);
+    }
+
+    public void add(LocalDate date, String category, String subcategory, long amount, long count) {
+        apply(date, category, subcategory, amount, count);
+    }
+
+    public void addAll(AggregationCube other) {
+        other.cells.forEach((date, categories) -> categories.forEach((category, subcategories) ->
+                subcategories.forEach((subcategory, totals) ->
+                        apply(date, category, subcategory, totals.amount, totals.count))));
+    }
+
+    public void addAll(LedgerSnapshot snapshot, int from, int to) {
+        for (int row = from; row < to; row++) {
+            apply(snapshot.date(row), snapshot.categoryName(snapshot.categoryId(row)),
+                    snapshot.subcategoryName(snapshot.subcategoryId(row)), snapshot.amountMinor(row), 1);
+        }
+    }
+
+    public void remove(LocalDate date, String category, String subcategory, long amount) {
+        apply(date, category, subcategory, -amount, -1);
+    }
+
+    public void clear() {
+        grandTotal.count = 0;
+        grandTotal.amount = 0;
+        categoryTotals.clear();
+        subcategoryTotals.clear();
+        monthOfYearTotals.clear();
+        monthTotals.clear();
+        dayTotals.clear();
+        cells.clear();
+        balances.clear();
+    }
+
+    private void apply(LocalDate date, String category, String subcategory, long amount, long count) {
+        grandTotal.add(amount, count);
+        categoryTotals.computeIfAbsent(category, key -> new Totals()).add(amount, count);
+        subcategoryTotals.computeIfAbsent(category, key -> new LinkedHashMap<>())
+                .computeIfAbsent(subcategory, key -> new Totals()).add(amount, count);
+        monthOfYearTotals.computeIfAbsent(category, key -> newMonthTotals())[date.getMonthValue() - 1].add(amount, count);
+        monthTotals.computeIfAbsent(YearMonth.from(date), key -> new HashMap<>())
+                .computeIfAbsent(category, key -> new Totals()).add(amount, count);
+        dayTotals.computeIfAbsent(date, key -> new HashMap<>())
+                .computeIfAbsent(category, key -> new Totals()).add(amount, count);
+        cells.computeIfAbsent(date, key -> new HashMap<>())
+                .computeIfAbsent(category, key -> new HashMap<>())
+                .computeIfAbsent(subcategory, key -> new Totals()).add(amount, count);
+        if (INCOME.equals(category)) {
+            balances.add(date, amount, 0);
+        } else if (EXPENSE.equals(category)) {
+            balances.add(date, 0, amount);
+        }
+    }
+
+    private static Totals[] newMonthTotals() {
+        Totals[] totals = new Totals[12];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new Totals();
+        }
+        return totals;
+    }
+
+    public Totals total() {
+        return grandTotal.copy();
+    }
+
+    public Totals total(String category) {
+        Totals totals = categoryTotals.get(category);
+        return totals == null ? new Totals() : totals.copy();
+    }
+
+    public Map<String, Totals> categoryTotals() {
+        Map<String, Totals> result = new LinkedHashMap<>();
+        categoryTotals.forEach((category, totals) -> result.put(category, totals.copy()));
+        return result;
+    }
+
+    public Map<String, Totals> categoryTotals(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return categoryTotals();
+        }
+        Map<String, Totals> result = new LinkedHashMap<>();
+        range(dayTotals, from, to).values().forEach(categories -> categories.forEach((category, totals) ->
+                result.computeIfAbsent(category, key -> new Totals()).add(totals.amount, totals.count)));
+        result.values().removeIf(totals -> totals.count == 0);
+        return result;
+    }
+
+    public Map<String, Totals> subcategoryTotals(String category) {
+        Map<String, Totals> result = new LinkedHashMap<>();
+        Map<String, Totals> subcategories = subcategoryTotals.getOrDefault(category, Collections.emptyMap());
+        subcategories.forEach((subcategory, totals) -> result.put(subcategory, totals.copy()));
+        return result;
+    }
+
+    public Map<String, Totals> subcategoryTotals() {
+        Map<String, Totals> result = new LinkedHashMap<>();
+        subcategoryTotals.values().forEach(subcategories -> subcategories.forEach((subcategory, totals) ->
+                result.computeIfAbsent(subcategory, key -> new Totals()).add(totals.amount, totals.count)));
+        return result;
+    }
+
+    public Map<String, Totals> subcategoryTotals(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return subcategoryTotals();
+        }
+        Map<String, Totals> result = new LinkedHashMap<>();
+        range(cells, from, to).values().forEach(categories -> categories.values().forEach(subcategories ->
+                subcategories.forEach((subcategory, totals) ->
+                        result.computeIfAbsent(subcategory, key -> new Totals()).add(totals.amount, totals.count))));
+        result.values().removeIf(totals -> totals.count == 0);
+        return result;
+    }
+
+    public Totals monthOfYearTotal(String category, int month) {
+        Totals[] totals = monthOfYearTotals.get(category);
+        return totals == null ? new Totals() : totals[month - 1].copy();
+    }
+
+    public SortedMap<YearMonth, Totals> monthlyTotals(String category) {
+        SortedMap<YearMonth, Totals> result = new TreeMap<>();
+        monthTotals.forEach((month, categories) -> {
+            Totals totals = categories.get(category);
+            if (totals != null && totals.count != 0) {
+                result.put(month, totals.copy());
+            }
+        });
+        return result;
+    }
+
+    public SortedMap<LocalDate, Totals> dailyTotals(String category) {
+        return dailyTotals(category, null, null);
+    }
+
+    public SortedMap<LocalDate, Totals> dailyTotals(String category, LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, Totals> result = new TreeMap<>();
+        range(dayTotals, from, to).forEach((date, categories) -> {
+            Totals totals = categories.get(category);
+            if (totals != null && totals.count != 0) {
+                result.put(date, totals.copy());
+            }
+        });
+        return result;
+    }
+
+    public SortedMap<LocalDate, Long> dailyBalance() {
+        return dailyBalance(null, null);
+    }
+
+    public SortedMap<LocalDate, Long> dailyBalance(LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, Long> result = new TreeMap<>();
+        range(dayTotals, from, to).forEach((date, categories) -> {
+            long balance = signedAmount(categories, INCOME) - signedAmount(categories, EXPENSE);
+            if (categories.values().stream().anyMatch(totals -> totals.count != 0)) {
+                result.put(date, balance);
+            }
+        });
+        return result;
+    }
+
+    public Totals slice(LocalDate from, LocalDate to, String category, String subcategory) {
+        Totals result = new Totals();
+        range(cells, from, to).values().forEach(categories -> categories.forEach((cellCategory, subcategories) -> {
+            if (category != null && !category.equals(cellCategory)) {
+                return;
+            }
+            subcategories.forEach((cellSubcategory, totals) -> {
+                if (subcategory == null || subcategory.equals(cellSubcategory)) {
+                    result.add(totals.amount, totals.count);
+                }
+            });
+        }));
+        return result;
+    }
+
+    public long amount(String category, LocalDate from, LocalDate to) {
+        if (INCOME.equals(category)) {
+            return balances.income(from, to);
+        }
+        if (EXPENSE.equals(category)) {
+            return balances.expense(from, to);
+        }
+        return slice(from, to, category, null).getAmount();
+    }
+
+    public long balance(LocalDate from, LocalDate to) {
+        return balances.balance(from, to);
+    }
+
+    public long balanceBefore(LocalDate date) {
+        return balances.balanceBefore(date);
+    }
+
+    private static long signedAmount(Map<String, Totals> categories, String category) {
+        Totals totals = categories.get(category);
+        return totals == null ? 0 : totals.amount;
+    }
+
+    private static <V> NavigableMap<LocalDate, V> range(NavigableMap<LocalDate, V> map, LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return Collections.emptyNavigableMap();
+        }
+        if (from != null) {
+            map = map.tailMap(from, true);
+        }
+        return to == null ? map : map.headMap(to, true);
+    }
+
+    public static class Totals {
+        private long count;
+        private long amount;
+
+        private void add(long amount, long count) {
+            this.amount += amount;
+            this.count += count;
+        }
+
+        private Totals copy() {
+            Totals copy = new Totals();
+            copy.count = count;
+            copy.amount = amount;
+            return copy;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public final class AnalyticsAggregates {
+    private AnalyticsAggregates() {
+    }
+
+    public static Map<String, Long> categoryTotals(AggregationCube cube, LocalDate from, LocalDate to) {
+        return amounts(cube.categoryTotals(from, to));
+    }
+
+    public static Map<String, Long> subcategoryTotals(AggregationCube cube, LocalDate from, LocalDate to) {
+        return amounts(cube.subcategoryTotals(from, to));
+    }
+
+    public static long[][] monthOfYearTotals(AggregationCube cube, LocalDate from, LocalDate to) {
+        long[][] totals = new long[2][12];
+        cube.dailyTotals(AggregationCube.INCOME, from, to).forEach((date, day) ->
+                totals[0][date.getMonthValue() - 1] += day.getAmount());
+        cube.dailyTotals(AggregationCube.EXPENSE, from, to).forEach((date, day) ->
+                totals[1][date.getMonthValue() - 1] += day.getAmount());
+        return totals;
+    }
+
+    public static SortedMap<LocalDate, Long> dailyTotals(AggregationCube cube, String category, LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, Long> result = new TreeMap<>();
+        cube.dailyTotals(category, from, to).forEach((date, day) -> result.put(date, day.getAmount()));
+        return result;
+    }
+
+    public static BucketedTotals bucketedTotals(AggregationCube cube, LocalDate from, LocalDate to,
+                                                ChartResolution resolution, int maxBuckets) {
+        SortedMap<LocalDate, Long> expenses = dailyTotals(cube, AggregationCube.EXPENSE, from, to);
+        SortedMap<LocalDate, Long> incomes = dailyTotals(cube, AggregationCube.INCOME, from, to);
+        SortedSet<LocalDate> dates = new TreeSet<>(expenses.keySet());
+        dates.addAll(incomes.keySet());
+        ChartResolution fitted = resolution.fit(dates, maxBuckets);
+        return new BucketedTotals(fitted, SeriesDownsampler.bucket(expenses, fitted), SeriesDownsampler.bucket(incomes, fitted));
+    }
+
+    public static BalanceSeries balanceSeries(AggregationCube cube, LocalDate from, LocalDate to, ChartResolution resolution) {
+        BalanceSeries series = new BalanceSeries(resolution, cube.balanceBefore(from));
+        cube.dailyBalance(from, to).forEach((date, change) -> series.accept(date.toEpochDay(), change));
+        return series;
+    }
+
+    private static Map<String, Long> amounts(Map<String, AggregationCube.Totals> totals) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        totals.forEach((name, total) -> result.put(name, total.getAmount()));
+        return result;
+    }
+
+    public static final class BucketedTotals {
+        private final ChartResolution resolution;
+        private final SortedMap<LocalDate, Long> expenses;
+        private final SortedMap<LocalDate, Long> incomes;
+
+        private BucketedTotals(ChartResolution resolution, SortedMap<LocalDate, Long> expenses, SortedMap<LocalDate, Long> incomes) {
+            this.resolution = resolution;
+            this.expenses = expenses;
+            this.incomes = incomes;
+        }
+
+        public ChartResolution getResolution() {
+            return resolution;
+        }
+
+        public SortedMap<LocalDate, Long> getExpenses() {
+            return expenses;
+        }
+
+        public SortedMap<LocalDate, Long> getIncomes() {
+            return incomes;
+        }
+    }
+}
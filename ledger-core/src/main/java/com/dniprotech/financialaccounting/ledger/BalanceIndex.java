@@ -0,0 +1,153 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class BalanceIndex {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int NIL = -1;
+
+    private final SplittableRandom random = new SplittableRandom(0x5EED);
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] priorities = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+    private long[] incomes = new long[INITIAL_CAPACITY];
+    private long[] expenses = new long[INITIAL_CAPACITY];
+    private long[] incomeSums = new long[INITIAL_CAPACITY];
+    private long[] expenseSums = new long[INITIAL_CAPACITY];
+    private int root = NIL;
+    private int size;
+
+    public void add(LocalDate date, long income, long expense) {
+        if (size == keys.length) {
+            grow();
+        }
+        root = insert(root, date.toEpochDay(), income, expense);
+    }
+
+    public void clear() {
+        root = NIL;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long income(LocalDate from, LocalDate to) {
+        return rangeSum(incomeSums, incomes, from, to);
+    }
+
+    public long expense(LocalDate from, LocalDate to) {
+        return rangeSum(expenseSums, expenses, from, to);
+    }
+
+    public long balance(LocalDate from, LocalDate to) {
+        return income(from, to) - expense(from, to);
+    }
+
+    public long balanceOn(LocalDate date) {
+        return balance(null, date);
+    }
+
+    public long balanceBefore(LocalDate date) {
+        return date == null ? 0 : balanceOn(date.minusDays(1));
+    }
+
+    private long rangeSum(long[] sums, long[] own, LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return 0;
+        }
+        long through = to == null ? sum(sums, root) : prefixBelow(sums, own, to.toEpochDay() + 1);
+        return through - (from == null ? 0 : prefixBelow(sums, own, from.toEpochDay()));
+    }
+
+    private long prefixBelow(long[] sums, long[] own, long key) {
+        long total = 0;
+        int node = root;
+        while (node != NIL) {
+            if (keys[node] < key) {
+                total += sum(sums, left[node]) + own[node];
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return total;
+    }
+
+    private int insert(int node, long key, long income, long expense) {
+        if (node == NIL) {
+            return newNode(key, income, expense);
+        }
+        if (key == keys[node]) {
+            incomes[node] += income;
+            expenses[node] += expense;
+        } else if (key < keys[node]) {
+            left[node] = insert(left[node], key, income, expense);
+            if (priorities[left[node]] > priorities[node]) {
+                return rotateRight(node);
+            }
+        } else {
+            right[node] = insert(right[node], key, income, expense);
+            if (priorities[right[node]] > priorities[node]) {
+                return rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private int newNode(long key, long income, long expense) {
+        int node = size++;
+        keys[node] = key;
+        priorities[node] = random.nextInt();
+        left[node] = NIL;
+        right[node] = NIL;
+        incomes[node] = income;
+        expenses[node] = expense;
+        update(node);
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(int node) {
+        incomeSums[node] = incomes[node] + sum(incomeSums, left[node]) + sum(incomeSums, right[node]);
+        expenseSums[node] = expenses[node] + sum(expenseSums, left[node]) + sum(expenseSums, right[node]);
+    }
+
+    private static long sum(long[] sums, int node) {
+        return node == NIL ? 0 : sums[node];
+    }
+
+    private void grow() {
+        int capacity = keys.length + (keys.length >> 1);
+        keys = Arrays.copyOf(keys, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        incomes = Arrays.copyOf(incomes, capacity);
+        expenses = Arrays.copyOf(expenses, capacity);
+        incomeSums = Arrays.copyOf(incomeSums, capacity);
+        expenseSums = Arrays.copyOf(expenseSums, capacity);
+    }
+}
@@ -0,0 +1,40 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class BalanceSeries {
+    private final ChartResolution resolution;
+    private long[] epochDays = new long[256];
+    private long[] balances = new long[256];
+    private int size;
+    private long balance;
+    private long nextBucketDay = Long.MIN_VALUE;
+
+    public BalanceSeries(ChartResolution resolution, long openingBalance) {
+        this.resolution = resolution == ChartResolution.AUTO ? ChartResolution.DAY : resolution;
+        this.balance = openingBalance;
+    }
+
+    public void accept(long epochDay, long change) {
+        if (epochDay >= nextBucketDay) {
+            LocalDate bucket = resolution.bucketStart(LocalDate.ofEpochDay(epochDay));
+            if (size == epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                balances = Arrays.copyOf(balances, size * 2);
+            }
+            epochDays[size++] = bucket.toEpochDay();
+            nextBucketDay = resolution.nextBucketStart(bucket).toEpochDay();
+        }
+        balance += change;
+        balances[size - 1] = balance;
+    }
+
+    public long[] getEpochDays() {
+        return Arrays.copyOf(epochDays, size);
+    }
+
+    public long[] getBalances() {
+        return Arrays.copyOf(balances, size);
+    }
+}
@@ -0,0 +1,306 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+public class BatchReportGenerator {
+    public static final String LEDGER_SUFFIX = "_transactions.txt";
+    private static final int BLOCK_SIZE = 4 * 1024 * 1024;
+    public static final String[] MONTH_LABELS = {"Січень", "Лютий", "Березень", "Квітень", "Травень", "Червень",
+            "Липень", "Серпень", "Вересень", "Жовтень", "Листопад", "Грудень"};
+
+    private final int threads;
+    private final Semaphore ioPermits;
+
+    public BatchReportGenerator(int threads, int ioConcurrency) {
+        this.threads = threads;
+        this.ioPermits = new Semaphore(ioConcurrency, true);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path userdata = Paths.get(args.length > 0 ? args[0] : "userdata");
+        Path output = args.length > 1 ? Paths.get(args[1]) : userdata.resolve("reports");
+        int threads = Integer.getInteger("financialaccounting.report.threads", Runtime.getRuntime().availableProcessors());
+        int ioConcurrency = Integer.getInteger("financialaccounting.report.io", Math.min(threads, 4));
+
+        long start = System.nanoTime();
+        List<LedgerReport> reports = new BatchReportGenerator(threads, ioConcurrency).generate(userdata, output);
+        long records = reports.stream().mapToLong(LedgerReport::getRecords).sum();
+        System.out.printf("Звітів: %d, записів: %d, потоків: %d, одночасних читань: %d, час: %d мс -> %s%n",
+                reports.size(), records, threads, ioConcurrency, (System.nanoTime() - start) / 1_000_000, output);
+    }
+
+    public List<LedgerReport> generate(Path userdata, Path output) throws IOException, InterruptedException {
+        List<Path> ledgers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(userdata, "*" + LEDGER_SUFFIX)) {
+            files.forEach(ledgers::add);
+        }
+        ledgers.sort(null);
+        Files.createDirectories(output);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<LedgerReport>> futures = new ArrayList<>();
+        try {
+            for (Path ledger : ledgers) {
+                futures.add(executor.submit(() -> {
+                    LedgerReport report = read(ledger);
+                    writeUserReport(report, output.resolve(report.getUser() + "_report.txt"));
+                    return report;
+                }));
+            }
+
+            List<LedgerReport> reports = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    reports.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    System.err.println("Не вдалося обробити " + ledgers.get(i) + ": " + e.getCause());
+                }
+            }
+            writeConsolidatedReport(reports, output.resolve("consolidated_report.txt"));
+            return reports;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public LedgerReport read(Path ledger) throws IOException, InterruptedException {
+        String fileName = ledger.getFileName().toString();
+        LedgerReport report = new LedgerReport(fileName.substring(0, fileName.length() - LEDGER_SUFFIX.length()));
+        long length;
+        long start = 0;
+        AggregationCube checkpoint = null;
+        ioPermits.acquire();
+        try {
+            length = Files.size(ledger);
+            Path binaryPath = LedgerBinaryFile.latestCheckpoint(ledger, length);
+            long checkpointLength = binaryPath == null ? -1 : LedgerBinaryFile.coveredLength(binaryPath, ledger, length);
+            if (checkpointLength >= 0) {
+                checkpoint = new AggregationCube();
+                try (LedgerBinaryFile file = LedgerBinaryFile.open(binaryPath)) {
+                    file.restoreAggregates(checkpoint);
+                }
+                start = checkpointLength;
+            }
+        } finally {
+            ioPermits.release();
+        }
+        if (checkpoint != null) {
+            for (String category : new String[]{AggregationCube.INCOME, AggregationCube.EXPENSE}) {
+                for (Map.Entry<YearMonth, AggregationCube.Totals> month : checkpoint.monthlyTotals(category).entrySet()) {
+                    report.add(month.getKey(), category, month.getValue().getAmount());
+                }
+            }
+            report.records = checkpoint.total().getCount();
+        }
+        if (start < length) {
+            readTail(ledger, start, length, report);
+        }
+        return report;
+    }
+
+    private void readTail(Path ledger, long start, long length, LedgerReport report)
+            throws IOException, InterruptedException {
+        TransactionRecordParser parser = new TransactionRecordParser();
+        ByteBuffer block = ByteBuffer.allocate((int) Math.min(BLOCK_SIZE, length - start));
+        long position = start;
+        try (FileChannel channel = FileChannel.open(ledger, StandardOpenOption.READ)) {
+            while (true) {
+                if (!block.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(block.capacity() * 2);
+                    block.flip();
+                    block = larger.put(block);
+                }
+                ioPermits.acquire();
+                try {
+                    while (block.hasRemaining() && position < length) {
+                        int limit = block.limit();
+                        block.limit((int) Math.min(limit, block.position() + (length - position)));
+                        int read = channel.read(block, position);
+                        block.limit(limit);
+                        if (read < 0) {
+                            length = position;
+                            break;
+                        }
+                        position += read;
+                    }
+                } finally {
+                    ioPermits.release();
+                }
+
+                boolean endOfInput = position >= length;
+                block.flip();
+                int end = endOfInput ? block.limit() : lastLineEnd(block);
+                parseLines(block, end, parser, report);
+                block.position(end);
+                block.compact();
+                if (endOfInput) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static int lastLineEnd(ByteBuffer block) {
+        for (int i = block.limit() - 1; i >= 0; i--) {
+            if (block.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void parseLines(ByteBuffer block, int end, TransactionRecordParser parser, LedgerReport report) {
+        CharBuffer chars = StandardCharsets.UTF_8.decode(block.duplicate().position(0).limit(end));
+        int lineStart = 0;
+        int limit = chars.limit();
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && chars.get(i) != '\n') {
+                continue;
+            }
+            if (i > lineStart && !(i - lineStart == 1 && chars.get(lineStart) == '\r')) {
+                try {
+                    TransactionRecord record = parser.parse(chars, lineStart, i);
+                    report.records++;
+                    report.add(YearMonth.from(record.getDate()), record.getCategory(), record.getAmount());
+                } catch (MalformedRecordException e) {
+                    report.malformed++;
+                }
+            }
+            lineStart = i + 1;
+        }
+    }
+
+    private static void writeUserReport(LedgerReport report, Path target) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writer.write("Користувач: " + report.getUser() + ", записів: " + report.getRecords());
+            if (report.getMalformed() > 0) {
+                writer.write(", пропущено некоректних: " + report.getMalformed());
+            }
+            writer.newLine();
+            writeYears(writer, report.getYears());
+        }
+    }
+
+    private static void writeConsolidatedReport(List<LedgerReport> reports, Path target) throws IOException {
+        SortedMap<Integer, long[][]> years = new TreeMap<>();
+        for (LedgerReport report : reports) {
+            report.getYears().forEach((year, totals) -> {
+                long[][] consolidated = years.computeIfAbsent(year, key -> new long[2][12]);
+                for (int month = 0; month < 12; month++) {
+                    consolidated[0][month] += totals[0][month];
+                    consolidated[1][month] += totals[1][month];
+                }
+            });
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writer.write("Зведений звіт, користувачів: " + reports.size());
+            writer.newLine();
+            writeYears(writer, years);
+
+            writer.newLine();
+            writer.write(String.format("%-20s %14s %14s %14s", "Користувач", "Прибуток", "Витрата", "Баланс"));
+            writer.newLine();
+            for (LedgerReport report : reports) {
+                long income = 0;
+                long expense = 0;
+                for (long[][] totals : report.getYears().values()) {
+                    for (int month = 0; month < 12; month++) {
+                        income += totals[0][month];
+                        expense += totals[1][month];
+                    }
+                }
+                writeRow(writer, report.getUser(), income, expense);
+            }
+        }
+    }
+
+    private static void writeYears(BufferedWriter writer, SortedMap<Integer, long[][]> years) throws IOException {
+        for (Map.Entry<Integer, long[][]> year : years.entrySet()) {
+            long[][] totals = year.getValue();
+            writer.newLine();
+            writer.write("Рік " + year.getKey());
+            writer.newLine();
+            writer.write(String.format("%-20s %14s %14s %14s", "Місяць", "Прибуток", "Витрата", "Баланс"));
+            writer.newLine();
+            long income = 0;
+            long expense = 0;
+            for (int month = 0; month < 12; month++) {
+                writeRow(writer, MONTH_LABELS[month], totals[0][month], totals[1][month]);
+                income += totals[0][month];
+                expense += totals[1][month];
+            }
+            writeRow(writer, "Разом", income, expense);
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, String label, long income, long expense) throws IOException {
+        writer.write(String.format("%-20s %14s %14s %14s", label, Money.format(income), Money.format(expense),
+                Money.format(income - expense)));
+        writer.newLine();
+    }
+
+    public static class LedgerReport {
+        private final String user;
+        private final SortedMap<Integer, long[][]> years = new TreeMap<>();
+        private long records;
+        private long malformed;
+
+        LedgerReport(String user) {
+            this.user = user;
+        }
+
+        void add(YearMonth month, String category, long amount) {
+            int index;
+            if (AggregationCube.INCOME.equals(category)) {
+                index = 0;
+            } else if (AggregationCube.EXPENSE.equals(category)) {
+                index = 1;
+            } else {
+                return;
+            }
+            years.computeIfAbsent(month.getYear(), key -> new long[2][12])[index][month.getMonthValue() - 1] += amount;
+        }
+
+        public String getUser() {
+            return user;
+        }
+
+        public SortedMap<Integer, long[][]> getYears() {
+            return years;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getMalformed() {
+            return malformed;
+        }
+    }
+}
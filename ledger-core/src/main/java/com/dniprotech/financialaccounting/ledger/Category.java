@@ -0,0 +1,55 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class Category {
+    private final String name;
+    private final List<Subcategory> subcategories;
+
+    public Category(String name, List<Subcategory> subcategories) {
+        this.name = name;
+        this.subcategories = subcategories;
+    }
+
+    public static List<Category> defaults() {
+        return Arrays.asList(
+                new Category(AggregationCube.EXPENSE, Arrays.asList(
+                        new Subcategory("Комунальні послуги"),
+                        new Subcategory("Їжа"),
+                        new Subcategory("Розваги"),
+                        new Subcategory("Одяг"),
+                        new Subcategory("Кредит"),
+                        new Subcategory("Депозит"),
+                        new Subcategory("Інші витрати")
+                )),
+                new Category(AggregationCube.INCOME, Arrays.asList(
+                        new Subcategory("Заробітна плата"),
+                        new Subcategory("Дивіденди"),
+                        new Subcategory("Подарунок"),
+                        new Subcategory("Інші надходження")
+                ))
+        );
+    }
+
+    public static boolean isKnown(String category, String subcategory) {
+        for (Category candidate : defaults()) {
+            if (candidate.getName().equals(category)) {
+                for (Subcategory known : candidate.getSubcategories()) {
+                    if (known.getName().equals(subcategory)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Subcategory> getSubcategories() {
+        return subcategories;
+    }
+}
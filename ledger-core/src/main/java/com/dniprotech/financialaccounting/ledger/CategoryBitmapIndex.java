@@ -0,0 +1,61 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CategoryBitmapIndex {
+    private final Map<String, RowBitmap> categories = new HashMap<>();
+    private final Map<String, RowBitmap> subcategories = new HashMap<>();
+
+    public void add(LedgerSnapshot snapshot, int from, int to, int rowOffset) {
+        for (int row = from; row < to; row++) {
+            bitmap(categories, snapshot.categoryName(snapshot.categoryId(row))).add(rowOffset + row);
+            bitmap(subcategories, snapshot.subcategoryName(snapshot.subcategoryId(row))).add(rowOffset + row);
+        }
+    }
+
+    public void addCategory(String category, RowBitmap rows) {
+        categories.merge(category, rows, RowBitmap::or);
+    }
+
+    public void addSubcategory(String subcategory, RowBitmap rows) {
+        subcategories.merge(subcategory, rows, RowBitmap::or);
+    }
+
+    public RowBitmap category(String category) {
+        return categories.getOrDefault(category, new RowBitmap());
+    }
+
+    public RowBitmap subcategory(String subcategory) {
+        return subcategories.getOrDefault(subcategory, new RowBitmap());
+    }
+
+    public RowBitmap anyCategory(Collection<String> names) {
+        RowBitmap result = new RowBitmap();
+        for (String name : names) {
+            result = result.or(category(name));
+        }
+        return result;
+    }
+
+    public RowBitmap anySubcategory(Collection<String> names) {
+        RowBitmap result = new RowBitmap();
+        for (String name : names) {
+            result = result.or(subcategory(name));
+        }
+        return result;
+    }
+
+    public RowBitmap filter(Collection<String> categoryNames, Collection<String> subcategoryNames) {
+        RowBitmap result = anyCategory(categoryNames);
+        if (subcategoryNames != null && !subcategoryNames.isEmpty()) {
+            result = result.and(anySubcategory(subcategoryNames));
+        }
+        return result;
+    }
+
+    private static RowBitmap bitmap(Map<String, RowBitmap> bitmaps, String name) {
+        return bitmaps.computeIfAbsent(name, key -> new RowBitmap());
+    }
+}
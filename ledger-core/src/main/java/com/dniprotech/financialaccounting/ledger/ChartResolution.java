@@ -0,0 +1,81 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public enum ChartResolution {
+    AUTO("Авто", null),
+    DAY("День", TransactionRecordParser.DATE_FORMATTER),
+    WEEK("Тиждень", TransactionRecordParser.DATE_FORMATTER),
+    MONTH("Місяць", DateTimeFormatter.ofPattern("MM.yyyy")),
+    YEAR("Рік", DateTimeFormatter.ofPattern("yyyy"));
+
+    private final String title;
+    private final DateTimeFormatter formatter;
+
+    ChartResolution(String title, DateTimeFormatter formatter) {
+        this.title = title;
+        this.formatter = formatter;
+    }
+
+    public LocalDate bucketStart(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            case YEAR:
+                return date.withDayOfYear(1);
+            default:
+                return date;
+        }
+    }
+
+    public LocalDate nextBucketStart(LocalDate bucketStart) {
+        switch (this) {
+            case WEEK:
+                return bucketStart.plusWeeks(1);
+            case MONTH:
+                return bucketStart.plusMonths(1);
+            case YEAR:
+                return bucketStart.plusYears(1);
+            default:
+                return bucketStart.plusDays(1);
+        }
+    }
+
+    public String label(LocalDate bucketStart) {
+        return bucketStart.format(formatter == null ? TransactionRecordParser.DATE_FORMATTER : formatter);
+    }
+
+    public ChartResolution fit(Collection<LocalDate> dates, int maxBuckets) {
+        ChartResolution[] candidates = values();
+        int start = this == AUTO ? DAY.ordinal() : ordinal();
+        for (int i = start; i < candidates.length - 1; i++) {
+            if (candidates[i].bucketCount(dates, maxBuckets) <= maxBuckets) {
+                return candidates[i];
+            }
+        }
+        return YEAR;
+    }
+
+    private int bucketCount(Collection<LocalDate> dates, int limit) {
+        Set<LocalDate> buckets = new HashSet<>();
+        for (LocalDate date : dates) {
+            if (buckets.add(bucketStart(date)) && buckets.size() > limit) {
+                break;
+            }
+        }
+        return buckets.size();
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -0,0 +1,22 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dniprotech.financialaccounting.Checkpoint")
+@Label("Запис контрольної точки")
+@Category({"Financial Accounting", "Ledger"})
+public class CheckpointEvent extends Event {
+    @Label("Записів")
+    public long records;
+
+    @Label("Зміщення журналу")
+    public long journalOffset;
+
+    @Label("Розмір")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,138 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class DescriptionIndex {
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final List<String> rowTokens = new ArrayList<>();
+    private int rowCount;
+
+    public void add(LedgerSnapshot snapshot, int from, int to, int rowOffset) {
+        for (int row = from; row < to; row++) {
+            add(rowOffset + row, snapshot.description(row), snapshot.subcategoryName(snapshot.subcategoryId(row)));
+        }
+    }
+
+    public void add(int row, String description, String subcategory) {
+        rowTokens.clear();
+        tokenize(description, rowTokens);
+        tokenize(subcategory, rowTokens);
+        for (String token : rowTokens) {
+            terms.computeIfAbsent(token, key -> new Postings()).add(row);
+        }
+        rowCount = Math.max(rowCount, row + 1);
+    }
+
+    public int[] termRows(String prefix) {
+        Collection<Postings> postings = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+        if (postings.size() == 1) {
+            Postings posting = postings.iterator().next();
+            return Arrays.copyOf(posting.rows, posting.size);
+        }
+        long total = 0;
+        for (Postings posting : postings) {
+            total += posting.size;
+        }
+        if (total < rowCount >>> 6) {
+            int[] rows = new int[(int) total];
+            int count = 0;
+            for (Postings posting : postings) {
+                System.arraycopy(posting.rows, 0, rows, count, posting.size);
+                count += posting.size;
+            }
+            return sortedDistinct(rows);
+        }
+        BitSet rows = new BitSet(rowCount);
+        for (Postings posting : postings) {
+            for (int i = 0; i < posting.size; i++) {
+                rows.set(posting.rows[i]);
+            }
+        }
+        return rows.stream().toArray();
+    }
+
+    SortedMap<String, Postings> terms() {
+        return terms;
+    }
+
+    static int[] sortedDistinct(int[] rows) {
+        Arrays.sort(rows);
+        int distinct = 0;
+        for (int i = 0; i < rows.length; i++) {
+            if (distinct == 0 || rows[distinct - 1] != rows[i]) {
+                rows[distinct++] = rows[i];
+            }
+        }
+        return Arrays.copyOf(rows, distinct);
+    }
+
+    static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        int j = 0;
+        for (int row : left) {
+            while (j < right.length && right[j] < row) {
+                j++;
+            }
+            if (j < right.length && right[j] == row) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    static void tokenize(String text, List<String> tokens) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && isWordChar(text, i, start >= 0);
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static boolean isWordChar(String text, int index, boolean inWord) {
+        char c = text.charAt(index);
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        boolean apostrophe = c == '\'' || c == '’' || c == 'ʼ';
+        return apostrophe && inWord && index + 1 < text.length() && Character.isLetter(text.charAt(index + 1));
+    }
+
+    static final class Postings {
+        int[] rows = new int[4];
+        int size;
+
+        private void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+}
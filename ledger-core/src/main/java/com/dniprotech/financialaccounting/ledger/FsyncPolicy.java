@@ -0,0 +1,82 @@
+package com.dniprotech.financialaccounting.ledger;
+
+public class FsyncPolicy {
+    public enum Mode {
+        PER_RECORD, INTERVAL, RECORD_COUNT
+    }
+
+    private final Mode mode;
+    private final long value;
+
+    private FsyncPolicy(Mode mode, long value) {
+        this.mode = mode;
+        this.value = value;
+    }
+
+    public static FsyncPolicy perRecord() {
+        return new FsyncPolicy(Mode.PER_RECORD, 1);
+    }
+
+    public static FsyncPolicy everyMillis(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Інтервал має бути додатним: " + millis);
+        }
+        return new FsyncPolicy(Mode.INTERVAL, millis);
+    }
+
+    public static FsyncPolicy everyRecords(int records) {
+        if (records <= 0) {
+            throw new IllegalArgumentException("Кількість записів має бути додатною: " + records);
+        }
+        return new FsyncPolicy(Mode.RECORD_COUNT, records);
+    }
+
+    public static FsyncPolicy parse(String value) {
+        String[] parts = value.trim().split(":", 2);
+        switch (parts[0]) {
+            case "record":
+                return perRecord();
+            case "interval":
+                return everyMillis(parseNumber(value, parts));
+            case "records":
+                long records = parseNumber(value, parts);
+                if (records > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Завелика кількість записів у політиці fsync: " + value);
+                }
+                return everyRecords((int) records);
+            default:
+                throw new IllegalArgumentException("Невідома політика fsync: " + value);
+        }
+    }
+
+    private static long parseNumber(String value, String[] parts) {
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Очікується політика fsync у форматі " + parts[0] + ":N: " + value);
+        }
+        try {
+            return Long.parseLong(parts[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некоректне число в політиці fsync: " + value, e);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        switch (mode) {
+            case INTERVAL:
+                return "interval:" + value;
+            case RECORD_COUNT:
+                return "records:" + value;
+            default:
+                return "record";
+        }
+    }
+}
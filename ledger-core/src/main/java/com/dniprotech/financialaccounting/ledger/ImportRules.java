@@ -0,0 +1,157 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class ImportRules {
+    public static final String DATE = "date";
+    public static final String TIME = "time";
+    public static final String AMOUNT = "amount";
+    public static final String DESCRIPTION = "description";
+
+    private static final String DEFAULT_INCOME_SUBCATEGORY = "Інші надходження";
+    private static final String DEFAULT_EXPENSE_SUBCATEGORY = "Інші витрати";
+
+    private final Map<String, List<String>> columnAliases = new HashMap<>();
+    private final List<Rule> rules = new ArrayList<>();
+    private Rule defaultIncome = new Rule(null, AggregationCube.INCOME, DEFAULT_INCOME_SUBCATEGORY);
+    private Rule defaultExpense = new Rule(null, AggregationCube.EXPENSE, DEFAULT_EXPENSE_SUBCATEGORY);
+    private Charset charset = StandardCharsets.UTF_8;
+
+    public ImportRules() {
+        columnAliases.put(DATE, new ArrayList<>(Arrays.asList("дата", "дата операції", "date", "transaction date", "posted date")));
+        columnAliases.put(TIME, new ArrayList<>(Arrays.asList("час", "time")));
+        columnAliases.put(AMOUNT, new ArrayList<>(Arrays.asList("сума", "сума операції", "amount", "sum")));
+        columnAliases.put(DESCRIPTION, new ArrayList<>(Arrays.asList("опис", "опис операції", "призначення платежу",
+                "деталі операції", "description", "details", "memo", "payee")));
+    }
+
+    public static ImportRules load(Path path) throws IOException {
+        ImportRules importRules = new ImportRules();
+        if (path == null || !Files.exists(path)) {
+            return importRules;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    importRules.parseLine(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(path + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return importRules;
+    }
+
+    private void parseLine(String line) {
+        int arrow = line.lastIndexOf("=>");
+        if (arrow >= 0) {
+            String pattern = line.substring(0, arrow).trim();
+            try {
+                rules.add(target(Pattern.compile(pattern, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE),
+                        line.substring(arrow + 2)));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Некоректний шаблон: " + pattern, e);
+            }
+            return;
+        }
+
+        int equals = line.indexOf('=');
+        if (equals < 0) {
+            throw new IllegalArgumentException("Очікується 'ключ = значення' або 'шаблон => Категорія / Підкатегорія'");
+        }
+        String key = line.substring(0, equals).trim();
+        String value = line.substring(equals + 1).trim();
+        if (key.startsWith("column.")) {
+            String column = key.substring("column.".length());
+            if (!columnAliases.containsKey(column)) {
+                throw new IllegalArgumentException("Невідома колонка: " + column);
+            }
+            columnAliases.get(column).add(0, value.toLowerCase(Locale.ROOT));
+        } else if ("default.income".equals(key)) {
+            defaultIncome = target(null, value);
+        } else if ("default.expense".equals(key)) {
+            defaultExpense = target(null, value);
+        } else if ("charset".equals(key)) {
+            charset = Charset.forName(value);
+        } else {
+            throw new IllegalArgumentException("Невідомий параметр: " + key);
+        }
+    }
+
+    private static Rule target(Pattern pattern, String target) {
+        int slash = target.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Очікується 'Категорія / Підкатегорія': " + target.trim());
+        }
+        String category = target.substring(0, slash).trim();
+        String subcategory = target.substring(slash + 1).trim();
+        if (!Category.isKnown(category, subcategory)) {
+            throw new IllegalArgumentException("Невідома категорія або підкатегорія: " + category + " / " + subcategory);
+        }
+        return new Rule(pattern, category, subcategory);
+    }
+
+    public Rule classify(String description, long signedAmount) {
+        for (Rule rule : rules) {
+            if (rule.pattern.matcher(description).find()) {
+                return rule;
+            }
+        }
+        return signedAmount < 0 ? defaultExpense : defaultIncome;
+    }
+
+    public int columnIndex(String column, String[] header) {
+        for (String alias : columnAliases.get(column)) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i].trim().toLowerCase(Locale.ROOT).equals(alias)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public static final class Rule {
+        private final Pattern pattern;
+        private final String category;
+        private final String subcategory;
+
+        private Rule(Pattern pattern, String category, String subcategory) {
+            this.pattern = pattern;
+            this.category = category;
+            this.subcategory = subcategory;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public String getSubcategory() {
+            return subcategory;
+        }
+    }
+}
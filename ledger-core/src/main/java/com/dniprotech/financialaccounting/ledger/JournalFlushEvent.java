@@ -0,0 +1,22 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dniprotech.financialaccounting.JournalFlush")
+@Label("Збереження журналу")
+@Category({"Financial Accounting", "Ledger"})
+public class JournalFlushEvent extends Event {
+    @Label("Записів")
+    public long records;
+
+    @Label("Розмір")
+    @DataAmount
+    public long bytes;
+
+    @Label("Зміщення журналу")
+    public long offset;
+}
@@ -0,0 +1,140 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LedgerBinaryConverter implements Closeable {
+    public static final int DEFAULT_CHUNK_ROWS = 8 * 65536;
+
+    private final Path target;
+    private final int chunkRows;
+    private final List<Path> chunks = new ArrayList<>();
+    private LedgerBinaryWriter chunk = new LedgerBinaryWriter();
+    private int rowCount;
+
+    public LedgerBinaryConverter(Path target) {
+        this(target, DEFAULT_CHUNK_ROWS);
+    }
+
+    public LedgerBinaryConverter(Path target, int chunkRows) {
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("Розмір частини має бути додатним: " + chunkRows);
+        }
+        this.target = target;
+        this.chunkRows = chunkRows;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> sources = new ArrayList<>();
+        if (args.length == 0) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get("userdata"), "*_transactions.txt")) {
+                files.forEach(sources::add);
+            }
+        } else {
+            for (String arg : args) {
+                sources.add(Paths.get(arg));
+            }
+        }
+
+        for (Path source : sources) {
+            long start = System.nanoTime();
+            Path target = LedgerBinaryFile.nextGenerationPath(source);
+            int rows = convert(source, target);
+            System.out.printf("%s -> %s: %d записів за %d мс%n", source, target, rows,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public static int convert(Path source) throws IOException {
+        return convert(source, LedgerBinaryFile.nextGenerationPath(source));
+    }
+
+    public static int convert(Path source, Path target) throws IOException {
+        return convert(source, target, DEFAULT_CHUNK_ROWS);
+    }
+
+    public static int convert(Path source, Path target, int chunkRows) throws IOException {
+        long sourceLength = Files.size(source);
+        try (LedgerBinaryConverter converter = new LedgerBinaryConverter(target, chunkRows);
+             TransactionRecordReader reader = new TransactionRecordReader(source, sourceLength)) {
+            try {
+                reader.read(converter::addUnchecked,
+                        (lineNumber, line, reason) -> System.err.println(source + ":" + lineNumber + ": " + reason));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return converter.write(sourceLength, LedgerBinaryFile.sourceChecksum(source, sourceLength));
+        }
+    }
+
+    public void add(TransactionRecord record) throws IOException {
+        add(LocalDateTime.of(record.getDate(), record.getTime()).toEpochSecond(ZoneOffset.UTC), record.getCategory(),
+                record.getSubcategory(), record.getAmount(), record.getDescription());
+    }
+
+    public void addUnchecked(TransactionRecord record) {
+        try {
+            add(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void add(long epochSecond, String category, String subcategory, long amountMinor, String description)
+            throws IOException {
+        chunk.add(epochSecond, category, subcategory, amountMinor, description);
+        rowCount++;
+        if (chunk.getRowCount() == chunkRows) {
+            spill();
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int write(long sourceLength, int sourceChecksum) throws IOException {
+        if (chunks.isEmpty()) {
+            chunk.write(target, sourceLength, sourceChecksum);
+            return rowCount;
+        }
+        if (chunk.getRowCount() > 0) {
+            spill();
+        }
+        List<LedgerBinaryFile> parts = new ArrayList<>(chunks.size());
+        try {
+            for (Path path : chunks) {
+                parts.add(LedgerBinaryFile.open(path));
+            }
+            return LedgerBinaryMerger.merge(parts, target, sourceLength, sourceChecksum);
+        } finally {
+            for (LedgerBinaryFile part : parts) {
+                part.close();
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        Path path = target.resolveSibling(target.getFileName() + ".part" + chunks.size());
+        chunks.add(path);
+        chunk.write(path, 0, 0);
+        chunk = new LedgerBinaryWriter();
+    }
+
+    @Override
+    public void close() {
+        for (Path path : chunks) {
+            LedgerBinaryFile.deleteTemporary(path);
+        }
+        chunks.clear();
+    }
+}
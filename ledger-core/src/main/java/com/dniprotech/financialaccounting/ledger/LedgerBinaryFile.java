@@ -0,0 +1,533 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class LedgerBinaryFile implements Closeable {
+    public static final int MAGIC = 0x46414C42;
+    public static final int VERSION = 3;
+    public static final int HEADER_SIZE = 128;
+    public static final String EXTENSION = ".bin";
+
+    static final int ROW_COUNT_OFFSET = 8;
+    static final int SOURCE_LENGTH_OFFSET = 16;
+    static final int SOURCE_CHECKSUM_OFFSET = 24;
+    static final int DICTIONARY_SIZE_OFFSET = 28;
+    static final int EPOCH_SECONDS_OFFSET = 32;
+    static final int AMOUNTS_OFFSET = 40;
+    static final int CATEGORY_IDS_OFFSET = 48;
+    static final int SUBCATEGORY_IDS_OFFSET = 56;
+    static final int DESCRIPTION_OFFSETS_OFFSET = 64;
+    static final int DESCRIPTION_HEAP_OFFSET = 72;
+    static final int DICTIONARY_OFFSET = 80;
+    static final int AGGREGATES_OFFSET = 88;
+    static final int AGGREGATE_COUNT_OFFSET = 96;
+    static final int TIME_ORDER_OFFSET = 104;
+    static final int BITMAPS_OFFSET = 112;
+    static final int TERMS_OFFSET = 120;
+    static final int AGGREGATE_CELL_SIZE = 3 * Integer.BYTES + 2 * Long.BYTES;
+    static final int CHECKSUM_WINDOW = 4096;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int rowCount;
+    private final long sourceLength;
+    private final int sourceChecksum;
+    private final ByteBuffer epochSecondBytes;
+    private final ByteBuffer amountBytes;
+    private final ByteBuffer categoryIdBytes;
+    private final ByteBuffer subcategoryIdBytes;
+    private final ByteBuffer descriptionOffsetBytes;
+    private final LongBuffer epochSeconds;
+    private final LongBuffer amounts;
+    private final IntBuffer categoryIds;
+    private final IntBuffer subcategoryIds;
+    private final LongBuffer descriptionOffsets;
+    private final MappedByteBuffer descriptionHeap;
+    private final String[] dictionary;
+    private final ByteBuffer aggregateCells;
+    private final int aggregateCount;
+    private final IntBuffer timeOrder;
+    private final ByteBuffer bitmaps;
+    private final int termCount;
+    private final LongBuffer postingStarts;
+    private final IntBuffer termStarts;
+    private final ByteBuffer termHeap;
+    private final IntBuffer postings;
+
+    private LedgerBinaryFile(Path path) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = readHeader(channel);
+            if (header == null) {
+                throw new IOException("Файл не є бінарним журналом транзакцій: " + path);
+            }
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Непідтримувана версія бінарного журналу: " + version);
+            }
+
+            long rows = header.getLong(ROW_COUNT_OFFSET);
+            if (rows < 0 || rows > Integer.MAX_VALUE / Long.BYTES) {
+                throw new IOException("Некоректна кількість записів: " + rows);
+            }
+            rowCount = (int) rows;
+            sourceLength = header.getLong(SOURCE_LENGTH_OFFSET);
+            sourceChecksum = header.getInt(SOURCE_CHECKSUM_OFFSET);
+
+            epochSecondBytes = map(header.getLong(EPOCH_SECONDS_OFFSET), (long) rowCount * Long.BYTES);
+            amountBytes = map(header.getLong(AMOUNTS_OFFSET), (long) rowCount * Long.BYTES);
+            categoryIdBytes = map(header.getLong(CATEGORY_IDS_OFFSET), (long) rowCount * Integer.BYTES);
+            subcategoryIdBytes = map(header.getLong(SUBCATEGORY_IDS_OFFSET), (long) rowCount * Integer.BYTES);
+            descriptionOffsetBytes = map(header.getLong(DESCRIPTION_OFFSETS_OFFSET), (long) (rowCount + 1) * Long.BYTES);
+            epochSeconds = epochSecondBytes.asLongBuffer();
+            amounts = amountBytes.asLongBuffer();
+            categoryIds = categoryIdBytes.asIntBuffer();
+            subcategoryIds = subcategoryIdBytes.asIntBuffer();
+            descriptionOffsets = descriptionOffsetBytes.asLongBuffer();
+            long heapStart = header.getLong(DESCRIPTION_HEAP_OFFSET);
+            descriptionHeap = map(heapStart, descriptionOffsets.get(rowCount));
+
+            ByteBuffer dictionaryBuffer = map(header.getLong(DICTIONARY_OFFSET),
+                    header.getLong(AGGREGATES_OFFSET) - header.getLong(DICTIONARY_OFFSET));
+            dictionary = new String[header.getInt(DICTIONARY_SIZE_OFFSET)];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] bytes = new byte[dictionaryBuffer.getInt()];
+                dictionaryBuffer.get(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            aggregateCount = header.getInt(AGGREGATE_COUNT_OFFSET);
+            aggregateCells = map(header.getLong(AGGREGATES_OFFSET), (long) aggregateCount * AGGREGATE_CELL_SIZE);
+
+            timeOrder = map(header.getLong(TIME_ORDER_OFFSET), (long) rowCount * Integer.BYTES).asIntBuffer();
+            long bitmapsStart = header.getLong(BITMAPS_OFFSET);
+            long termsStart = header.getLong(TERMS_OFFSET);
+            bitmaps = map(bitmapsStart, termsStart - bitmapsStart);
+            termCount = map(termsStart, Integer.BYTES).getInt(0);
+            if (termCount < 0) {
+                throw new IOException("Некоректна кількість термінів: " + termCount);
+            }
+            long postingStartsOffset = termsStart + Integer.BYTES;
+            postingStarts = map(postingStartsOffset, (long) (termCount + 1) * Long.BYTES).asLongBuffer();
+            long termStartsOffset = postingStartsOffset + (long) (termCount + 1) * Long.BYTES;
+            termStarts = map(termStartsOffset, (long) (termCount + 1) * Integer.BYTES).asIntBuffer();
+            long termHeapOffset = termStartsOffset + (long) (termCount + 1) * Integer.BYTES;
+            termHeap = map(termHeapOffset, termStarts.get(termCount));
+            postings = map(termHeapOffset + termStarts.get(termCount), postingStarts.get(termCount) * Integer.BYTES)
+                    .asIntBuffer();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static LedgerBinaryFile open(Path path) throws IOException {
+        return new LedgerBinaryFile(path);
+    }
+
+    public static Path binaryPathFor(Path textPath) {
+        String fileName = textPath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String baseName = extension > 0 ? fileName.substring(0, extension) : fileName;
+        return textPath.resolveSibling(baseName + EXTENSION);
+    }
+
+    public static Path generationPath(Path textPath, long generation) {
+        Path binaryPath = binaryPathFor(textPath);
+        if (generation == 0) {
+            return binaryPath;
+        }
+        return binaryPath.resolveSibling(baseName(binaryPath) + "." + generation + EXTENSION);
+    }
+
+    public static List<Path> generations(Path textPath) throws IOException {
+        Path binaryPath = binaryPathFor(textPath);
+        List<Path> generations = list(binaryPath, "*" + EXTENSION);
+        generations.sort(Comparator.comparingLong((Path file) -> generationOf(binaryPath, file)).reversed());
+        return generations;
+    }
+
+    private static List<Path> list(Path binaryPath, String glob) throws IOException {
+        List<Path> matches = new ArrayList<>();
+        Path directory = binaryPath.toAbsolutePath().getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return matches;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                int suffix = fileName.lastIndexOf(EXTENSION);
+                if (suffix > 0 && generationOf(binaryPath, Path.of(fileName.substring(0, suffix) + EXTENSION)) >= 0) {
+                    matches.add(binaryPath.resolveSibling(fileName));
+                }
+            }
+        }
+        return matches;
+    }
+
+    public static Path nextGenerationPath(Path textPath) throws IOException {
+        List<Path> generations = generations(textPath);
+        if (generations.isEmpty()) {
+            return binaryPathFor(textPath);
+        }
+        return generationPath(textPath, generationOf(binaryPathFor(textPath), generations.get(0)) + 1);
+    }
+
+    public static Path latestCheckpoint(Path textPath, long textLength) throws IOException {
+        for (Path generation : generations(textPath)) {
+            if (coveredLength(generation, textPath, textLength) >= 0) {
+                return generation;
+            }
+        }
+        return null;
+    }
+
+    public static List<Path> deleteGenerationsExcept(Path textPath, Path keep) throws IOException {
+        List<Path> locked = new ArrayList<>();
+        List<Path> stale = generations(textPath);
+        stale.addAll(list(binaryPathFor(textPath), "*" + EXTENSION + ".*"));
+        for (Path generation : stale) {
+            if (!generation.equals(keep)) {
+                try {
+                    Files.deleteIfExists(generation);
+                } catch (IOException e) {
+                    locked.add(generation);
+                }
+            }
+        }
+        return locked;
+    }
+
+    static void deleteTemporary(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    private static String baseName(Path binaryPath) {
+        String fileName = binaryPath.getFileName().toString();
+        return fileName.substring(0, fileName.length() - EXTENSION.length());
+    }
+
+    private static long generationOf(Path binaryPath, Path file) {
+        String fileName = file.getFileName().toString();
+        if (fileName.equals(binaryPath.getFileName().toString())) {
+            return 0;
+        }
+        String prefix = baseName(binaryPath) + ".";
+        if (!fileName.startsWith(prefix) || !fileName.endsWith(EXTENSION)
+                || fileName.length() <= prefix.length() + EXTENSION.length()) {
+            return -1;
+        }
+        String generation = fileName.substring(prefix.length(), fileName.length() - EXTENSION.length());
+        for (int i = 0; i < generation.length(); i++) {
+            if (generation.charAt(i) < '0' || generation.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        try {
+            return Long.parseLong(generation);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static boolean covers(Path binaryPath, Path textPath, long textLength) throws IOException {
+        return coveredLength(binaryPath, textPath, textLength) == textLength;
+    }
+
+    public static long coveredLength(Path binaryPath, Path textPath, long textLength) throws IOException {
+        if (!Files.exists(binaryPath) || !Files.exists(textPath)) {
+            return -1;
+        }
+        try (FileChannel binary = FileChannel.open(binaryPath, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(binary);
+            if (header == null || header.getInt(4) != VERSION) {
+                return -1;
+            }
+            long sourceLength = header.getLong(SOURCE_LENGTH_OFFSET);
+            if (sourceLength < 0 || sourceLength > textLength
+                    || header.getInt(SOURCE_CHECKSUM_OFFSET) != sourceChecksum(textPath, sourceLength)) {
+                return -1;
+            }
+            return sourceLength;
+        }
+    }
+
+    public static int sourceChecksum(Path textPath, long length) throws IOException {
+        long start = Math.max(0, length - CHECKSUM_WINDOW);
+        ByteBuffer window = ByteBuffer.allocate((int) (length - start));
+        try (FileChannel channel = FileChannel.open(textPath, StandardOpenOption.READ)) {
+            readFully(channel, window, start);
+        }
+        window.flip();
+        CRC32 crc = new CRC32();
+        crc.update(window);
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0);
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            return null;
+        }
+        return header;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return;
+            }
+        }
+    }
+
+    private MappedByteBuffer map(long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Колонка перевищує 2 ГБ: " + size);
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getSourceLength() {
+        return sourceLength;
+    }
+
+    public int getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    public LongBuffer epochSeconds() {
+        return epochSeconds.duplicate();
+    }
+
+    public LongBuffer amounts() {
+        return amounts.duplicate();
+    }
+
+    public IntBuffer categoryIds() {
+        return categoryIds.duplicate();
+    }
+
+    public IntBuffer subcategoryIds() {
+        return subcategoryIds.duplicate();
+    }
+
+    public int getAggregateCount() {
+        return aggregateCount;
+    }
+
+    public void restoreAggregates(AggregationCube cube) {
+        ByteBuffer cells = aggregateCells.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < aggregateCount; i++) {
+            LocalDate date = LocalDate.ofEpochDay(cells.getInt());
+            String category = dictionary[cells.getInt()];
+            String subcategory = dictionary[cells.getInt()];
+            long count = cells.getLong();
+            long amount = cells.getLong();
+            cube.add(date, category, subcategory, amount, count);
+        }
+    }
+
+    public void restoreBitmaps(CategoryBitmapIndex index) {
+        ByteBuffer buffer = bitmaps.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int categories = buffer.getInt();
+        for (int i = 0; i < categories; i++) {
+            String category = dictionary[buffer.getInt()];
+            index.addCategory(category, RowBitmap.read(buffer));
+        }
+        int subcategories = buffer.getInt();
+        for (int i = 0; i < subcategories; i++) {
+            String subcategory = dictionary[buffer.getInt()];
+            index.addSubcategory(subcategory, RowBitmap.read(buffer));
+        }
+    }
+
+    public int[] rowsInTimeRange(long fromSecond, long toSecond) {
+        int from = timeLowerBound(fromSecond);
+        int to = Math.max(from, timeLowerBound(toSecond));
+        int[] rows = new int[to - from];
+        timeOrder.get(from, rows);
+        return rows;
+    }
+
+    private int timeLowerBound(long second) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochSeconds.get(timeOrder.get(mid)) < second) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int getTermCount() {
+        return termCount;
+    }
+
+    public int[] termRows(String prefix) {
+        int first = termLowerBound(prefix);
+        int last = first;
+        while (last < termCount && term(last).startsWith(prefix)) {
+            last++;
+        }
+        int start = (int) postingStarts.get(first);
+        int end = (int) postingStarts.get(last);
+        int[] rows = new int[end - start];
+        postings.get(start, rows);
+        if (last - first <= 1) {
+            return rows;
+        }
+        if (rows.length < rowCount >>> 6) {
+            return DescriptionIndex.sortedDistinct(rows);
+        }
+        BitSet union = new BitSet(rowCount);
+        for (int row : rows) {
+            union.set(row);
+        }
+        return union.stream().toArray();
+    }
+
+    private int termLowerBound(String prefix) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (term(mid).compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    String term(int index) {
+        int start = termStarts.get(index);
+        byte[] bytes = new byte[termStarts.get(index + 1) - start];
+        termHeap.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    long postingStart(int index) {
+        return postingStarts.get(index);
+    }
+
+    int posting(int index) {
+        return postings.get(index);
+    }
+
+    ByteBuffer section(int headerField) {
+        switch (headerField) {
+            case EPOCH_SECONDS_OFFSET:
+                return epochSecondBytes.duplicate();
+            case AMOUNTS_OFFSET:
+                return amountBytes.duplicate();
+            case CATEGORY_IDS_OFFSET:
+                return categoryIdBytes.duplicate();
+            case SUBCATEGORY_IDS_OFFSET:
+                return subcategoryIdBytes.duplicate();
+            case DESCRIPTION_OFFSETS_OFFSET:
+                return descriptionOffsetBytes.duplicate().limit(rowCount * Long.BYTES);
+            case DESCRIPTION_HEAP_OFFSET:
+                return descriptionHeap.duplicate();
+            default:
+                throw new IllegalArgumentException("Невідома колонка: " + headerField);
+        }
+    }
+
+    long descriptionOffset(int row) {
+        return descriptionOffsets.get(row);
+    }
+
+    IntBuffer timeOrder() {
+        return timeOrder.duplicate();
+    }
+
+    ByteBuffer bitmaps() {
+        return bitmaps.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    ByteBuffer aggregateCells() {
+        return aggregateCells.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    public String dictionaryEntry(int id) {
+        return dictionary[id];
+    }
+
+    public long epochSecond(int row) {
+        return epochSeconds.get(row);
+    }
+
+    public LocalDateTime dateTime(int row) {
+        return LocalDateTime.ofEpochSecond(epochSeconds.get(row), 0, ZoneOffset.UTC);
+    }
+
+    public long amountMinor(int row) {
+        return amounts.get(row);
+    }
+
+    public String category(int row) {
+        return dictionary[categoryIds.get(row)];
+    }
+
+    public String subcategory(int row) {
+        return dictionary[subcategoryIds.get(row)];
+    }
+
+    public String description(int row) {
+        int start = (int) descriptionOffsets.get(row);
+        int end = (int) descriptionOffsets.get(row + 1);
+        byte[] bytes = new byte[end - start];
+        descriptionHeap.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
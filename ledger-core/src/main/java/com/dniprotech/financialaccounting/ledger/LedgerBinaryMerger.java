@@ -0,0 +1,425 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LedgerBinaryMerger {
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    private final List<LedgerBinaryFile> parts;
+    private final int[] rowOffsets;
+    private final long[] heapOffsets;
+    private final int[][] dictionaryMappings;
+    private final List<String> dictionary = new ArrayList<>();
+    private final int rowCount;
+    private final long heapSize;
+
+    private LedgerBinaryMerger(List<LedgerBinaryFile> parts) {
+        this.parts = parts;
+        rowOffsets = new int[parts.size()];
+        heapOffsets = new long[parts.size()];
+        dictionaryMappings = new int[parts.size()][];
+        Map<String, Integer> dictionaryIds = new HashMap<>();
+        long rows = 0;
+        long heap = 0;
+        for (int part = 0; part < parts.size(); part++) {
+            LedgerBinaryFile file = parts.get(part);
+            rowOffsets[part] = (int) rows;
+            heapOffsets[part] = heap;
+            rows += file.getRowCount();
+            heap += file.descriptionOffset(file.getRowCount());
+            if (rows > Integer.MAX_VALUE / Long.BYTES) {
+                throw new IllegalStateException("Забагато записів для бінарного журналу: " + rows);
+            }
+            int[] mapping = new int[file.getDictionarySize()];
+            for (int id = 0; id < mapping.length; id++) {
+                String entry = file.dictionaryEntry(id);
+                Integer mergedId = dictionaryIds.get(entry);
+                if (mergedId == null) {
+                    mergedId = dictionary.size();
+                    dictionary.add(entry);
+                    dictionaryIds.put(entry, mergedId);
+                }
+                mapping[id] = mergedId;
+            }
+            dictionaryMappings[part] = mapping;
+        }
+        rowCount = (int) rows;
+        heapSize = heap;
+    }
+
+    public static int merge(List<LedgerBinaryFile> parts, Path target, long sourceLength, int sourceChecksum)
+            throws IOException {
+        LedgerBinaryMerger merger = new LedgerBinaryMerger(parts);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            merger.write(new Output(channel), sourceLength, sourceChecksum);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return merger.rowCount;
+    }
+
+    private void write(Output output, long sourceLength, int sourceChecksum) throws IOException {
+        output.reserve(LedgerBinaryFile.HEADER_SIZE).position(LedgerBinaryFile.HEADER_SIZE);
+
+        long epochSecondsOffset = output.position();
+        for (LedgerBinaryFile part : parts) {
+            output.copy(part.section(LedgerBinaryFile.EPOCH_SECONDS_OFFSET));
+        }
+        long amountsOffset = output.position();
+        for (LedgerBinaryFile part : parts) {
+            output.copy(part.section(LedgerBinaryFile.AMOUNTS_OFFSET));
+        }
+        long categoryIdsOffset = output.position();
+        writeIds(output, LedgerBinaryFile.CATEGORY_IDS_OFFSET);
+        long subcategoryIdsOffset = output.position();
+        writeIds(output, LedgerBinaryFile.SUBCATEGORY_IDS_OFFSET);
+
+        long descriptionOffsetsOffset = output.position();
+        for (int part = 0; part < parts.size(); part++) {
+            LedgerBinaryFile file = parts.get(part);
+            if (heapOffsets[part] == 0) {
+                output.copy(file.section(LedgerBinaryFile.DESCRIPTION_OFFSETS_OFFSET));
+                continue;
+            }
+            for (int row = 0; row < file.getRowCount(); row++) {
+                output.reserve(Long.BYTES).putLong(file.descriptionOffset(row) + heapOffsets[part]);
+            }
+        }
+        output.reserve(Long.BYTES).putLong(heapSize);
+        long descriptionHeapOffset = output.position();
+        for (LedgerBinaryFile part : parts) {
+            output.copy(part.section(LedgerBinaryFile.DESCRIPTION_HEAP_OFFSET));
+        }
+
+        long dictionaryOffset = output.position();
+        for (String entry : dictionary) {
+            output.write(entry.getBytes(StandardCharsets.UTF_8), true);
+        }
+        long aggregatesOffset = output.position();
+        int aggregateCount = writeAggregates(output);
+        long timeOrderOffset = output.position();
+        writeTimeOrder(output);
+        long bitmapsOffset = output.position();
+        writeBitmaps(output, true);
+        writeBitmaps(output, false);
+        long termsOffset = output.position();
+        writeTerms(output);
+        output.drain();
+
+        ByteBuffer header = ByteBuffer.allocate(LedgerBinaryFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LedgerBinaryFile.MAGIC)
+                .putInt(LedgerBinaryFile.VERSION)
+                .putLong(rowCount)
+                .putLong(sourceLength)
+                .putInt(sourceChecksum)
+                .putInt(dictionary.size())
+                .putLong(epochSecondsOffset)
+                .putLong(amountsOffset)
+                .putLong(categoryIdsOffset)
+                .putLong(subcategoryIdsOffset)
+                .putLong(descriptionOffsetsOffset)
+                .putLong(descriptionHeapOffset)
+                .putLong(dictionaryOffset)
+                .putLong(aggregatesOffset)
+                .putInt(aggregateCount);
+        header.putLong(LedgerBinaryFile.TIME_ORDER_OFFSET, timeOrderOffset)
+                .putLong(LedgerBinaryFile.BITMAPS_OFFSET, bitmapsOffset)
+                .putLong(LedgerBinaryFile.TERMS_OFFSET, termsOffset);
+        header.clear();
+        output.writeAt(header, 0);
+    }
+
+    private void writeIds(Output output, int headerField) throws IOException {
+        for (int part = 0; part < parts.size(); part++) {
+            LedgerBinaryFile file = parts.get(part);
+            int[] mapping = dictionaryMappings[part];
+            if (isIdentity(mapping)) {
+                output.copy(file.section(headerField));
+                continue;
+            }
+            IntBuffer ids = headerField == LedgerBinaryFile.CATEGORY_IDS_OFFSET
+                    ? file.categoryIds() : file.subcategoryIds();
+            for (int row = 0; row < file.getRowCount(); row++) {
+                output.reserve(Integer.BYTES).putInt(mapping[ids.get(row)]);
+            }
+        }
+    }
+
+    private static boolean isIdentity(int[] mapping) {
+        for (int id = 0; id < mapping.length; id++) {
+            if (mapping[id] != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int writeAggregates(Output output) throws IOException {
+        Map<LedgerBinaryWriter.AggregateKey, long[]> cells = new LinkedHashMap<>();
+        for (int part = 0; part < parts.size(); part++) {
+            LedgerBinaryFile file = parts.get(part);
+            int[] mapping = dictionaryMappings[part];
+            ByteBuffer buffer = file.aggregateCells();
+            for (int i = 0; i < file.getAggregateCount(); i++) {
+                LedgerBinaryWriter.AggregateKey key = new LedgerBinaryWriter.AggregateKey(buffer.getInt(),
+                        mapping[buffer.getInt()], mapping[buffer.getInt()]);
+                long[] totals = cells.computeIfAbsent(key, k -> new long[2]);
+                totals[0] += buffer.getLong();
+                totals[1] += buffer.getLong();
+            }
+        }
+        for (Map.Entry<LedgerBinaryWriter.AggregateKey, long[]> cell : cells.entrySet()) {
+            LedgerBinaryWriter.AggregateKey key = cell.getKey();
+            output.reserve(LedgerBinaryFile.AGGREGATE_CELL_SIZE)
+                    .putInt(key.epochDay)
+                    .putInt(key.categoryId)
+                    .putInt(key.subcategoryId)
+                    .putLong(cell.getValue()[0])
+                    .putLong(cell.getValue()[1]);
+        }
+        return cells.size();
+    }
+
+    private void writeTimeOrder(Output output) throws IOException {
+        IntBuffer[] orders = new IntBuffer[parts.size()];
+        long[] heads = new long[parts.size()];
+        for (int part = 0; part < parts.size(); part++) {
+            orders[part] = parts.get(part).timeOrder();
+            heads[part] = head(part, orders[part]);
+        }
+        for (int written = 0; written < rowCount; written++) {
+            int next = -1;
+            for (int part = 0; part < parts.size(); part++) {
+                if (orders[part].hasRemaining() && (next < 0 || heads[part] < heads[next])) {
+                    next = part;
+                }
+            }
+            output.reserve(Integer.BYTES).putInt(orders[next].get() + rowOffsets[next]);
+            heads[next] = head(next, orders[next]);
+        }
+    }
+
+    private long head(int part, IntBuffer order) {
+        return order.hasRemaining() ? parts.get(part).epochSecond(order.get(order.position())) : Long.MAX_VALUE;
+    }
+
+    private void writeBitmaps(Output output, boolean categories) throws IOException {
+        List<List<ByteBuffer>> bitmaps = new ArrayList<>(dictionary.size());
+        List<List<Integer>> offsets = new ArrayList<>(dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            bitmaps.add(new ArrayList<>());
+            offsets.add(new ArrayList<>());
+        }
+        for (int part = 0; part < parts.size(); part++) {
+            ByteBuffer buffer = parts.get(part).bitmaps();
+            if (!categories) {
+                skipBitmaps(buffer);
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                int id = dictionaryMappings[part][buffer.getInt()];
+                int start = buffer.position();
+                RowBitmap.skip(buffer);
+                bitmaps.get(id).add(buffer.duplicate().position(start).limit(buffer.position()).slice()
+                        .order(ByteOrder.LITTLE_ENDIAN));
+                offsets.get(id).add(rowOffsets[part]);
+            }
+        }
+
+        int count = 0;
+        for (List<ByteBuffer> serialized : bitmaps) {
+            if (!serialized.isEmpty()) {
+                count++;
+            }
+        }
+        output.reserve(Integer.BYTES).putInt(count);
+        RowBitmap.Appender appender = new RowBitmap.Appender(output::reserve);
+        for (int id = 0; id < bitmaps.size(); id++) {
+            if (bitmaps.get(id).isEmpty()) {
+                continue;
+            }
+            output.reserve(Integer.BYTES).putInt(id);
+            long countPosition = output.position();
+            output.reserve(Integer.BYTES).putInt(0);
+            for (int i = 0; i < bitmaps.get(id).size(); i++) {
+                appender.append(bitmaps.get(id).get(i), offsets.get(id).get(i));
+            }
+            output.patchInt(countPosition, appender.finish());
+        }
+    }
+
+    private static void skipBitmaps(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            buffer.getInt();
+            RowBitmap.skip(buffer);
+        }
+    }
+
+    private void writeTerms(Output output) throws IOException {
+        TermMerge merge = new TermMerge();
+        int termCount = 0;
+        while (merge.next()) {
+            termCount++;
+        }
+        output.reserve(Integer.BYTES).putInt(termCount);
+
+        long postingStart = 0;
+        output.reserve(Long.BYTES).putLong(postingStart);
+        merge = new TermMerge();
+        while (merge.next()) {
+            for (int part = 0; part < parts.size(); part++) {
+                if (merge.indexes[part] >= 0) {
+                    LedgerBinaryFile file = parts.get(part);
+                    postingStart += file.postingStart(merge.indexes[part] + 1) - file.postingStart(merge.indexes[part]);
+                }
+            }
+            output.reserve(Long.BYTES).putLong(postingStart);
+        }
+
+        long termStart = 0;
+        output.reserve(Integer.BYTES).putInt(0);
+        merge = new TermMerge();
+        while (merge.next()) {
+            termStart += merge.term.getBytes(StandardCharsets.UTF_8).length;
+            if (termStart > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Словник пошуку перевищує 2 ГБ");
+            }
+            output.reserve(Integer.BYTES).putInt((int) termStart);
+        }
+
+        merge = new TermMerge();
+        while (merge.next()) {
+            output.write(merge.term.getBytes(StandardCharsets.UTF_8), false);
+        }
+
+        merge = new TermMerge();
+        while (merge.next()) {
+            for (int part = 0; part < parts.size(); part++) {
+                if (merge.indexes[part] < 0) {
+                    continue;
+                }
+                LedgerBinaryFile file = parts.get(part);
+                long end = file.postingStart(merge.indexes[part] + 1);
+                for (long posting = file.postingStart(merge.indexes[part]); posting < end; posting++) {
+                    output.reserve(Integer.BYTES).putInt(file.posting((int) posting) + rowOffsets[part]);
+                }
+            }
+        }
+    }
+
+    private final class TermMerge {
+        private final int[] positions = new int[parts.size()];
+        private final String[] heads = new String[parts.size()];
+        private final int[] indexes = new int[parts.size()];
+        private String term;
+
+        TermMerge() {
+            for (int part = 0; part < parts.size(); part++) {
+                heads[part] = parts.get(part).getTermCount() > 0 ? parts.get(part).term(0) : null;
+            }
+        }
+
+        boolean next() {
+            term = null;
+            for (String head : heads) {
+                if (head != null && (term == null || head.compareTo(term) < 0)) {
+                    term = head;
+                }
+            }
+            if (term == null) {
+                return false;
+            }
+            for (int part = 0; part < parts.size(); part++) {
+                if (term.equals(heads[part])) {
+                    LedgerBinaryFile file = parts.get(part);
+                    indexes[part] = positions[part]++;
+                    heads[part] = positions[part] < file.getTermCount() ? file.term(positions[part]) : null;
+                } else {
+                    indexes[part] = -1;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long flushed;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+            return buffer;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void write(byte[] bytes, boolean lengthPrefix) throws IOException {
+            if (lengthPrefix) {
+                reserve(Integer.BYTES).putInt(bytes.length);
+            }
+            if (bytes.length > buffer.capacity()) {
+                copy(ByteBuffer.wrap(bytes));
+                return;
+            }
+            reserve(bytes.length).put(bytes);
+        }
+
+        void copy(ByteBuffer section) throws IOException {
+            drain();
+            while (section.hasRemaining()) {
+                flushed += channel.write(section);
+            }
+        }
+
+        void patchInt(long position, int value) throws IOException {
+            if (position >= flushed) {
+                buffer.putInt((int) (position - flushed), value);
+                return;
+            }
+            writeAt(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), position);
+        }
+
+        void writeAt(ByteBuffer bytes, long position) throws IOException {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes, position + bytes.position());
+            }
+        }
+
+        void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class LedgerBinaryWriter {
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private long[] epochSeconds = new long[1024];
+    private long[] amounts = new long[1024];
+    private int[] categoryIds = new int[1024];
+    private int[] subcategoryIds = new int[1024];
+    private long[] descriptionOffsets = new long[1025];
+    private byte[] descriptionHeap = new byte[16 * 1024];
+    private int rowCount;
+
+    public void add(LocalDateTime dateTime, String category, String subcategory, long amountMinor, String description) {
+        add(dateTime.toEpochSecond(ZoneOffset.UTC), category, subcategory, amountMinor, description);
+    }
+
+    public void add(long epochSecond, String category, String subcategory, long amountMinor, String description) {
+        if (rowCount == epochSeconds.length) {
+            int capacity = rowCount * 2;
+            epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            subcategoryIds = Arrays.copyOf(subcategoryIds, capacity);
+            descriptionOffsets = Arrays.copyOf(descriptionOffsets, capacity + 1);
+        }
+
+        byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
+        long heapSize = descriptionOffsets[rowCount];
+        if (heapSize + descriptionBytes.length > descriptionHeap.length) {
+            long capacity = Math.max((long) descriptionHeap.length * 2, heapSize + descriptionBytes.length);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Сховище описів перевищує 2 ГБ");
+            }
+            descriptionHeap = Arrays.copyOf(descriptionHeap, (int) capacity);
+        }
+        System.arraycopy(descriptionBytes, 0, descriptionHeap, (int) heapSize, descriptionBytes.length);
+
+        epochSeconds[rowCount] = epochSecond;
+        amounts[rowCount] = amountMinor;
+        categoryIds[rowCount] = dictionaryId(category);
+        subcategoryIds[rowCount] = dictionaryId(subcategory);
+        descriptionOffsets[rowCount + 1] = heapSize + descriptionBytes.length;
+        rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public void write(Path target, long sourceLength, int sourceChecksum) throws IOException {
+        long epochSecondsOffset = LedgerBinaryFile.HEADER_SIZE;
+        long amountsOffset = epochSecondsOffset + (long) rowCount * Long.BYTES;
+        long categoryIdsOffset = amountsOffset + (long) rowCount * Long.BYTES;
+        long subcategoryIdsOffset = categoryIdsOffset + (long) rowCount * Integer.BYTES;
+        long descriptionOffsetsOffset = subcategoryIdsOffset + (long) rowCount * Integer.BYTES;
+        long descriptionHeapOffset = descriptionOffsetsOffset + (long) (rowCount + 1) * Long.BYTES;
+        long dictionaryOffset = descriptionHeapOffset + descriptionOffsets[rowCount];
+        List<byte[]> dictionaryBytes = new ArrayList<>(dictionary.size());
+        long aggregatesOffset = dictionaryOffset;
+        for (String entry : dictionary) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            dictionaryBytes.add(bytes);
+            aggregatesOffset += Integer.BYTES + bytes.length;
+        }
+        Map<AggregateKey, long[]> aggregates = aggregateCells();
+        long timeOrderOffset = aggregatesOffset + (long) aggregates.size() * LedgerBinaryFile.AGGREGATE_CELL_SIZE;
+        int[] timeOrder = timeOrder();
+        RowBitmap[] categoryBitmaps = bitmaps(categoryIds);
+        RowBitmap[] subcategoryBitmaps = bitmaps(subcategoryIds);
+        long bitmapsOffset = timeOrderOffset + (long) rowCount * Integer.BYTES;
+        long termsOffset = bitmapsOffset + bitmapsSize(categoryBitmaps) + bitmapsSize(subcategoryBitmaps);
+        SortedMap<String, DescriptionIndex.Postings> terms = descriptionIndex().terms();
+        List<byte[]> termBytes = new ArrayList<>(terms.size());
+        for (String term : terms.keySet()) {
+            termBytes.add(term.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(LedgerBinaryFile.MAGIC)
+                    .putInt(LedgerBinaryFile.VERSION)
+                    .putLong(rowCount)
+                    .putLong(sourceLength)
+                    .putInt(sourceChecksum)
+                    .putInt(dictionary.size())
+                    .putLong(epochSecondsOffset)
+                    .putLong(amountsOffset)
+                    .putLong(categoryIdsOffset)
+                    .putLong(subcategoryIdsOffset)
+                    .putLong(descriptionOffsetsOffset)
+                    .putLong(descriptionHeapOffset)
+                    .putLong(dictionaryOffset)
+                    .putLong(aggregatesOffset)
+                    .putInt(aggregates.size());
+            buffer.putLong(LedgerBinaryFile.TIME_ORDER_OFFSET, timeOrderOffset)
+                    .putLong(LedgerBinaryFile.BITMAPS_OFFSET, bitmapsOffset)
+                    .putLong(LedgerBinaryFile.TERMS_OFFSET, termsOffset);
+            buffer.position(LedgerBinaryFile.HEADER_SIZE);
+
+            for (int i = 0; i < rowCount; i++) {
+                buffer = ensureRemaining(channel, buffer, Long.BYTES).putLong(epochSeconds[i]);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                buffer = ensureRemaining(channel, buffer, Long.BYTES).putLong(amounts[i]);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(categoryIds[i]);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(subcategoryIds[i]);
+            }
+            for (int i = 0; i <= rowCount; i++) {
+                buffer = ensureRemaining(channel, buffer, Long.BYTES).putLong(descriptionOffsets[i]);
+            }
+            drain(channel, buffer);
+            writeFully(channel, ByteBuffer.wrap(descriptionHeap, 0, (int) descriptionOffsets[rowCount]));
+
+            for (byte[] bytes : dictionaryBytes) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES + bytes.length);
+                buffer.putInt(bytes.length).put(bytes);
+            }
+            for (Map.Entry<AggregateKey, long[]> cell : aggregates.entrySet()) {
+                AggregateKey key = cell.getKey();
+                buffer = ensureRemaining(channel, buffer, LedgerBinaryFile.AGGREGATE_CELL_SIZE);
+                buffer.putInt(key.epochDay)
+                        .putInt(key.categoryId)
+                        .putInt(key.subcategoryId)
+                        .putLong(cell.getValue()[0])
+                        .putLong(cell.getValue()[1]);
+            }
+            for (int row : timeOrder) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(row);
+            }
+            buffer = writeBitmaps(channel, buffer, categoryBitmaps);
+            buffer = writeBitmaps(channel, buffer, subcategoryBitmaps);
+            buffer = writeTerms(channel, buffer, terms, termBytes);
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<AggregateKey, long[]> aggregateCells() {
+        Map<AggregateKey, long[]> cells = new LinkedHashMap<>();
+        for (int i = 0; i < rowCount; i++) {
+            AggregateKey key = new AggregateKey((int) Math.floorDiv(epochSeconds[i], 86_400L), categoryIds[i],
+                    subcategoryIds[i]);
+            long[] totals = cells.computeIfAbsent(key, k -> new long[2]);
+            totals[0]++;
+            totals[1] += amounts[i];
+        }
+        return cells;
+    }
+
+    private int[] timeOrder() {
+        long[] keys = Arrays.copyOf(epochSeconds, rowCount);
+        int[] rows = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = i;
+        }
+        TimeIndex.sort(keys, rows, rowCount);
+        return rows;
+    }
+
+    private RowBitmap[] bitmaps(int[] ids) {
+        RowBitmap[] bitmaps = new RowBitmap[dictionary.size()];
+        for (int i = 0; i < rowCount; i++) {
+            if (bitmaps[ids[i]] == null) {
+                bitmaps[ids[i]] = new RowBitmap();
+            }
+            bitmaps[ids[i]].add(i);
+        }
+        return bitmaps;
+    }
+
+    private static long bitmapsSize(RowBitmap[] bitmaps) {
+        long size = Integer.BYTES;
+        for (RowBitmap bitmap : bitmaps) {
+            if (bitmap != null) {
+                size += Integer.BYTES + bitmap.serializedSize();
+            }
+        }
+        return size;
+    }
+
+    private static ByteBuffer writeBitmaps(FileChannel channel, ByteBuffer buffer, RowBitmap[] bitmaps) throws IOException {
+        int count = 0;
+        for (RowBitmap bitmap : bitmaps) {
+            if (bitmap != null) {
+                count++;
+            }
+        }
+        buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(count);
+        for (int id = 0; id < bitmaps.length; id++) {
+            if (bitmaps[id] != null) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES + bitmaps[id].serializedSize()).putInt(id);
+                bitmaps[id].write(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    private DescriptionIndex descriptionIndex() {
+        DescriptionIndex index = new DescriptionIndex();
+        for (int i = 0; i < rowCount; i++) {
+            int start = (int) descriptionOffsets[i];
+            String description = new String(descriptionHeap, start, (int) descriptionOffsets[i + 1] - start,
+                    StandardCharsets.UTF_8);
+            index.add(i, description, dictionary.get(subcategoryIds[i]));
+        }
+        return index;
+    }
+
+    private static ByteBuffer writeTerms(FileChannel channel, ByteBuffer buffer,
+                                         SortedMap<String, DescriptionIndex.Postings> terms,
+                                         List<byte[]> termBytes) throws IOException {
+        buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(terms.size());
+        long postingStart = 0;
+        buffer = ensureRemaining(channel, buffer, Long.BYTES).putLong(postingStart);
+        for (DescriptionIndex.Postings postings : terms.values()) {
+            postingStart += postings.size;
+            buffer = ensureRemaining(channel, buffer, Long.BYTES).putLong(postingStart);
+        }
+        int termStart = 0;
+        buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(termStart);
+        for (byte[] bytes : termBytes) {
+            termStart += bytes.length;
+            buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(termStart);
+        }
+        for (byte[] bytes : termBytes) {
+            buffer = ensureRemaining(channel, buffer, bytes.length).put(bytes);
+        }
+        for (DescriptionIndex.Postings postings : terms.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                buffer = ensureRemaining(channel, buffer, Integer.BYTES).putInt(postings.rows[i]);
+            }
+        }
+        return buffer;
+    }
+
+    private int dictionaryId(String value) {
+        Integer id = dictionaryIds.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.add(value);
+            dictionaryIds.put(value, id);
+        }
+        return id;
+    }
+
+    private static ByteBuffer ensureRemaining(FileChannel channel, ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        drain(channel, buffer);
+        if (buffer.capacity() < required) {
+            return ByteBuffer.allocate(required).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffer;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static final class AggregateKey {
+        final int epochDay;
+        final int categoryId;
+        final int subcategoryId;
+
+        AggregateKey(int epochDay, int categoryId, int subcategoryId) {
+            this.epochDay = epochDay;
+            this.categoryId = categoryId;
+            this.subcategoryId = subcategoryId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof AggregateKey)) {
+                return false;
+            }
+            AggregateKey key = (AggregateKey) other;
+            return epochDay == key.epochDay && categoryId == key.categoryId && subcategoryId == key.subcategoryId;
+        }
+
+        @Override
+        public int hashCode() {
+            return (epochDay * 31 + categoryId) * 31 + subcategoryId;
+        }
+    }
+}
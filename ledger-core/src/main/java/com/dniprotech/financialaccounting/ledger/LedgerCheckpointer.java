@@ -0,0 +1,99 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public class LedgerCheckpointer {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ledger-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final Path textPath;
+    private final long minimumTailBytes;
+    private final Consumer<Path> writtenHandler;
+    private final Consumer<Exception> failureHandler;
+    private volatile long checkpointOffset;
+
+    public LedgerCheckpointer(Path textPath, long checkpointOffset, long minimumTailBytes,
+                              Consumer<Path> writtenHandler, Consumer<Exception> failureHandler) {
+        this.textPath = textPath;
+        this.checkpointOffset = checkpointOffset;
+        this.minimumTailBytes = minimumTailBytes;
+        this.writtenHandler = writtenHandler;
+        this.failureHandler = failureHandler;
+    }
+
+    public boolean checkpoint(LedgerBinaryFile base, LedgerSnapshot tail, long journalOffset) {
+        if (journalOffset - checkpointOffset < minimumTailBytes || !writing.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                Path path = write(base, tail, textPath, journalOffset);
+                checkpointOffset = journalOffset;
+                writtenHandler.accept(path);
+            } catch (IOException | RuntimeException e) {
+                failureHandler.accept(e);
+            } finally {
+                writing.set(false);
+            }
+        });
+        return true;
+    }
+
+    public static Path write(LedgerBinaryFile base, LedgerSnapshot tail, Path textPath, long journalOffset)
+            throws IOException {
+        CheckpointEvent event = new CheckpointEvent();
+        event.begin();
+        LedgerBinaryWriter writer = new LedgerBinaryWriter();
+        for (int row = 0; row < tail.size(); row++) {
+            writer.add(tail.epochSecond(row), tail.categoryName(tail.categoryId(row)),
+                    tail.subcategoryName(tail.subcategoryId(row)), tail.amountMinor(row), tail.description(row));
+        }
+        Path binaryPath = LedgerBinaryFile.nextGenerationPath(textPath);
+        int checksum = LedgerBinaryFile.sourceChecksum(textPath, journalOffset);
+        int records;
+        if (base == null) {
+            writer.write(binaryPath, journalOffset, checksum);
+            records = writer.getRowCount();
+        } else {
+            Path tailPath = binaryPath.resolveSibling(binaryPath.getFileName() + ".tail");
+            writer.write(tailPath, journalOffset, checksum);
+            try (LedgerBinaryFile tailFile = LedgerBinaryFile.open(tailPath)) {
+                records = LedgerBinaryMerger.merge(List.of(base, tailFile), binaryPath, journalOffset, checksum);
+            } finally {
+                LedgerBinaryFile.deleteTemporary(tailPath);
+            }
+        }
+        if (event.shouldCommit()) {
+            event.records = records;
+            event.journalOffset = journalOffset;
+            event.bytes = Files.size(binaryPath);
+            event.commit();
+        }
+        return binaryPath;
+    }
+
+
+    public long getCheckpointOffset() {
+        return checkpointOffset;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,281 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LedgerCompactor implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMPORARY_SUFFIX = ".compact";
+
+    private final Path source;
+    private final Path temporary;
+    private final FileOutputStream fileOutput;
+    private final BufferedOutputStream output;
+    private final TransactionRecordParser parser = new TransactionRecordParser();
+    private final RecordHashSet seen = new RecordHashSet();
+    private final long startNanos = System.nanoTime();
+    private byte[] line = new byte[256];
+    private long rowsRead;
+    private long rowsWritten;
+    private long duplicateRows;
+    private long malformedRows;
+    private long bytesRead;
+    private long bytesWritten;
+    private boolean committed;
+
+    public LedgerCompactor(Path source) throws IOException {
+        this.source = source;
+        this.temporary = source.resolveSibling(source.getFileName() + TEMPORARY_SUFFIX);
+        this.fileOutput = new FileOutputStream(temporary.toFile());
+        this.output = new BufferedOutputStream(fileOutput, BUFFER_SIZE);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> sources = new ArrayList<>();
+        if (args.length == 0) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get("userdata"), "*_transactions.txt")) {
+                files.forEach(sources::add);
+            }
+        } else {
+            for (String arg : args) {
+                sources.add(Paths.get(arg));
+            }
+        }
+
+        for (Path source : sources) {
+            System.out.println(source + ": " + compact(source));
+        }
+    }
+
+    public static Stats compact(Path source) throws IOException {
+        try (LedgerCompactor compactor = new LedgerCompactor(source)) {
+            compactor.copyDistinct(0, Files.size(source));
+            return compactor.commit();
+        }
+    }
+
+    public void copyDistinct(long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int lineLength = 0;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long position = from;
+            while (position < to) {
+                buffer.clear();
+                buffer.limit((int) Math.min(BUFFER_SIZE, to - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                bytesRead += read;
+                byte[] bytes = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '\n') {
+                        lineLength = appendToLine(lineLength, bytes, lineStart, i - lineStart);
+                        writeIfDistinct(lineLength);
+                        lineLength = 0;
+                        lineStart = i + 1;
+                    }
+                }
+                lineLength = appendToLine(lineLength, bytes, lineStart, read - lineStart);
+            }
+        }
+        if (lineLength > 0) {
+            writeIfDistinct(lineLength);
+        }
+    }
+
+    public Stats commit() throws IOException {
+        output.flush();
+        fileOutput.getChannel().force(true);
+        output.close();
+        Files.move(temporary, source, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        return getStats();
+    }
+
+    public Stats getStats() {
+        return new Stats(rowsRead, rowsWritten, duplicateRows, malformedRows, bytesRead, bytesWritten,
+                System.nanoTime() - startNanos);
+    }
+
+    private int appendToLine(int lineLength, byte[] bytes, int from, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(bytes, from, line, lineLength, length);
+        return lineLength + length;
+    }
+
+    private void writeIfDistinct(int lineLength) throws IOException {
+        int length = lineLength;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        String text = new String(line, 0, length, StandardCharsets.UTF_8);
+        if (text.isBlank()) {
+            return;
+        }
+        rowsRead++;
+
+        String key;
+        try {
+            key = parser.parse(text).toRecordString();
+        } catch (MalformedRecordException e) {
+            malformedRows++;
+            key = text.trim();
+        }
+        if (!seen.add(key)) {
+            duplicateRows++;
+            return;
+        }
+        output.write(line, 0, length);
+        output.write('\n');
+        rowsWritten++;
+        bytesWritten += length + 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            output.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public static class Stats {
+        private final long rowsRead;
+        private final long rowsWritten;
+        private final long duplicateRows;
+        private final long malformedRows;
+        private final long bytesBefore;
+        private final long bytesAfter;
+        private final long elapsedNanos;
+
+        Stats(long rowsRead, long rowsWritten, long duplicateRows, long malformedRows, long bytesBefore,
+              long bytesAfter, long elapsedNanos) {
+            this.rowsRead = rowsRead;
+            this.rowsWritten = rowsWritten;
+            this.duplicateRows = duplicateRows;
+            this.malformedRows = malformedRows;
+            this.bytesBefore = bytesBefore;
+            this.bytesAfter = bytesAfter;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        public long getDuplicateRows() {
+            return duplicateRows;
+        }
+
+        public long getMalformedRows() {
+            return malformedRows;
+        }
+
+        public long getBytesBefore() {
+            return bytesBefore;
+        }
+
+        public long getBytesAfter() {
+            return bytesAfter;
+        }
+
+        public long getReclaimedBytes() {
+            return bytesBefore - bytesAfter;
+        }
+
+        public long getReclaimedRows() {
+            return rowsRead - rowsWritten;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("записів %d -> %d, дублікатів %d, некоректних %d, звільнено %d байт за %d мс",
+                    rowsRead, rowsWritten, duplicateRows, malformedRows, getReclaimedBytes(), elapsedNanos / 1_000_000);
+        }
+    }
+
+    private static class RecordHashSet {
+        private long[] first = new long[1 << 12];
+        private long[] second = new long[1 << 12];
+        private int size;
+
+        boolean add(String key) {
+            long h1 = 0xcbf29ce484222325L;
+            long h2 = 0x9e3779b97f4a7c15L;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                h1 = (h1 ^ c) * 0x100000001b3L;
+                h2 = h2 * 31 + c;
+            }
+            h2 = mix(h2) | 1;
+            if (size * 2 >= first.length) {
+                grow();
+            }
+            return insert(first, second, mix(h1), h2);
+        }
+
+        private boolean insert(long[] firstHashes, long[] secondHashes, long h1, long h2) {
+            int mask = firstHashes.length - 1;
+            int slot = (int) h1 & mask;
+            while (secondHashes[slot] != 0) {
+                if (firstHashes[slot] == h1 && secondHashes[slot] == h2) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            firstHashes[slot] = h1;
+            secondHashes[slot] = h2;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            long[] oldFirst = first;
+            long[] oldSecond = second;
+            first = new long[oldFirst.length * 2];
+            second = new long[oldSecond.length * 2];
+            size = 0;
+            for (int i = 0; i < oldFirst.length; i++) {
+                if (oldSecond[i] != 0) {
+                    insert(first, second, oldFirst[i], oldSecond[i]);
+                }
+            }
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93e67a8d1a5L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LedgerGenerator {
+    private static final int CHUNK_ROWS = 64 * 1024;
+    private static final int BYTES_PER_ROW = 128;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final byte[] CATEGORY_PREFIX = " - Категорія: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUBCATEGORY_PREFIX = " - Підкатегорія: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] AMOUNT_PREFIX = ", Сума: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DESCRIPTION_PREFIX = ", Опис: ".getBytes(StandardCharsets.UTF_8);
+
+    private static final String USAGE = "Використання: LedgerGenerator [файл] [--rows=N] [--from=yyyy-MM-dd]"
+            + " [--to=yyyy-MM-dd] [--seed=N] [--spread=X] [--seasonality=X] [--threads=N]"
+            + " [--weight=підкатегорія:X] [--median=підкатегорія:сума]";
+
+    private static final Map<String, Double> DEFAULT_WEIGHTS = Map.of(
+            "Комунальні послуги", 8.0, "Їжа", 40.0, "Розваги", 12.0, "Одяг", 6.0, "Кредит", 3.0, "Депозит", 2.0,
+            "Заробітна плата", 4.0, "Дивіденди", 1.0, "Подарунок", 1.0);
+    private static final Map<String, Long> DEFAULT_MEDIANS = Map.of(
+            "Комунальні послуги", 120_000L, "Їжа", 35_000L, "Розваги", 50_000L, "Одяг", 150_000L,
+            "Кредит", 300_000L, "Депозит", 500_000L, "Заробітна плата", 2_500_000L, "Дивіденди", 300_000L,
+            "Подарунок", 100_000L);
+    private static final Map<String, String[]> DESCRIPTIONS = Map.of(
+            "Комунальні послуги", new String[]{"Світло", "Газ", "Вода", "Опалення", "Інтернет", "Квартплата"},
+            "Їжа", new String[]{"АТБ", "Сільпо", "Novus", "Ринок", "Кава", "Обід", "Пекарня", "Доставка їжі"},
+            "Розваги", new String[]{"Кіно", "Концерт", "Боулінг", "Театр", "Підписка", "Кав'ярня з друзями"},
+            "Одяг", new String[]{"Взуття", "Куртка", "Джинси", "Футболка", "Спортивний одяг"},
+            "Кредит", new String[]{"Платіж за кредитом", "Розстрочка", "Кредитна картка"},
+            "Депозит", new String[]{"Поповнення депозиту", "Відкриття депозиту"},
+            "Заробітна плата", new String[]{"Зарплата", "Аванс", "Премія"},
+            "Дивіденди", new String[]{"Дивіденди", "Відсотки за депозитом"},
+            "Подарунок", new String[]{"Подарунок від батьків", "Подарунок на день народження", "Переказ від друга"});
+
+    private long rows = 1_000_000;
+    private LocalDate from = LocalDate.of(2015, 1, 1);
+    private LocalDate to = LocalDate.of(2024, 12, 31);
+    private long seed = 42;
+    private double spread = 0.6;
+    private double seasonality = 0.25;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private final Map<String, Double> weights = new HashMap<>(DEFAULT_WEIGHTS);
+    private final Map<String, Long> medians = new HashMap<>(DEFAULT_MEDIANS);
+
+    private Profile[] profiles;
+    private double totalWeight;
+    private long startSecond;
+    private long spanSeconds;
+
+    public static void main(String[] args) throws Exception {
+        LedgerGenerator generator = new LedgerGenerator();
+        Path output = Paths.get("userdata", "synthetic_transactions.txt");
+        try {
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    output = Paths.get(arg);
+                    continue;
+                }
+                int separator = arg.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Очікується --параметр=значення: " + arg);
+                }
+                String value = arg.substring(separator + 1);
+                switch (arg.substring(2, separator)) {
+                    case "rows":
+                        generator.rows(parseCount(value));
+                        break;
+                    case "from":
+                        generator.from = LocalDate.parse(value);
+                        break;
+                    case "to":
+                        generator.to = LocalDate.parse(value);
+                        break;
+                    case "seed":
+                        generator.seed = Long.parseLong(value);
+                        break;
+                    case "spread":
+                        generator.spread = Double.parseDouble(value);
+                        break;
+                    case "seasonality":
+                        generator.seasonality = Double.parseDouble(value);
+                        break;
+                    case "threads":
+                        generator.threads = Integer.parseInt(value);
+                        break;
+                    case "weight":
+                        generator.weight(subcategoryOf(value), Double.parseDouble(valueOf(value)));
+                        break;
+                    case "median":
+                        String amount = valueOf(value);
+                        long median = Money.parse(amount, 0, amount.length());
+                        if (median == Money.INVALID) {
+                            throw new IllegalArgumentException("Некоректна сума: " + arg);
+                        }
+                        generator.median(subcategoryOf(value), median);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Невідомий параметр: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long bytes = generator.generate(output);
+        double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        System.out.printf("%s: %d записів, %d байт за %.1f с (%.1f МБ/с)%n", output, generator.rows, bytes, seconds,
+                bytes / seconds / (1024 * 1024));
+    }
+
+    public LedgerGenerator rows(long rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Кількість записів не може бути від'ємною: " + rows);
+        }
+        this.rows = rows;
+        return this;
+    }
+
+    public LedgerGenerator span(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    public LedgerGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public LedgerGenerator weight(String subcategory, double weight) {
+        checkSubcategory(subcategory);
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Вага має бути невід'ємним числом: " + subcategory + ":" + weight);
+        }
+        weights.put(subcategory, weight);
+        return this;
+    }
+
+    public LedgerGenerator median(String subcategory, long medianMinor) {
+        checkSubcategory(subcategory);
+        if (medianMinor <= 0) {
+            throw new IllegalArgumentException("Медіана має бути додатною: " + subcategory + ":" + medianMinor);
+        }
+        medians.put(subcategory, medianMinor);
+        return this;
+    }
+
+    private static void checkSubcategory(String subcategory) {
+        List<String> known = new ArrayList<>();
+        for (Category category : Category.defaults()) {
+            for (Subcategory candidate : category.getSubcategories()) {
+                if (candidate.getName().equals(subcategory)) {
+                    return;
+                }
+                known.add(candidate.getName());
+            }
+        }
+        throw new IllegalArgumentException("Невідома підкатегорія: " + subcategory + ", відомі: " + String.join(", ", known));
+    }
+
+    public long generate(Path output) throws IOException, InterruptedException {
+        prepare();
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        long chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "ledger-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ArrayDeque<Future<ByteBuffer>> inFlight = new ArrayDeque<>();
+            long nextChunk = 0;
+            while (nextChunk < chunks || !inFlight.isEmpty()) {
+                while (nextChunk < chunks && inFlight.size() < 2 * Math.max(1, threads)) {
+                    long chunk = nextChunk++;
+                    inFlight.add(executor.submit(() -> generateChunk(chunk)));
+                }
+                ByteBuffer buffer = inFlight.poll().get();
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Помилка генерації журналу", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return written;
+    }
+
+    private void prepare() {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Кінець періоду раніше за початок: " + from + " > " + to);
+        }
+        List<Profile> result = new ArrayList<>();
+        totalWeight = 0;
+        for (Category category : Category.defaults()) {
+            for (Subcategory subcategory : category.getSubcategories()) {
+                double weight = weights.getOrDefault(subcategory.getName(), 0.0);
+                if (weight <= 0) {
+                    continue;
+                }
+                totalWeight += weight;
+                result.add(new Profile(category.getName(), subcategory.getName(), totalWeight,
+                        medians.getOrDefault(subcategory.getName(), 50_000L)));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("Усі ваги підкатегорій нульові");
+        }
+        profiles = result.toArray(new Profile[0]);
+        startSecond = from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        spanSeconds = to.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) - startSecond;
+    }
+
+    private ByteBuffer generateChunk(long chunk) {
+        SplittableRandom random = new SplittableRandom(seed + chunk * GOLDEN_GAMMA);
+        long first = chunk * CHUNK_ROWS;
+        long last = Math.min(rows, first + CHUNK_ROWS);
+        long step = Math.max(1, spanSeconds / Math.max(1, rows));
+        RowWriter out = new RowWriter((int) (last - first) * BYTES_PER_ROW);
+        for (long row = first; row < last; row++) {
+            long epochSecond = startSecond + row * spanSeconds / rows + random.nextLong(step);
+            out.date(Math.floorDiv(epochSecond, 86_400L));
+            out.time((int) Math.floorMod(epochSecond, 86_400L));
+
+            Profile profile = pick(random.nextDouble() * totalWeight);
+            double factor = Math.exp(spread * random.nextGaussian());
+            if (profile.expense) {
+                factor *= 1 + seasonality * Math.cos(2 * Math.PI * (out.dayOfYear - 355) / 365.25);
+            }
+            long amount = Math.max(1, Math.round(profile.medianMinor * factor));
+
+            out.put(CATEGORY_PREFIX).put(profile.category)
+                    .put(SUBCATEGORY_PREFIX).put(profile.subcategory)
+                    .put(AMOUNT_PREFIX).amount(amount)
+                    .put(DESCRIPTION_PREFIX).put(profile.descriptions[random.nextInt(profile.descriptions.length)])
+                    .put((byte) '\n');
+        }
+        return out.toBuffer();
+    }
+
+    private Profile pick(double point) {
+        for (Profile profile : profiles) {
+            if (point < profile.cumulativeWeight) {
+                return profile;
+            }
+        }
+        return profiles[profiles.length - 1];
+    }
+
+    private static long parseCount(String value) {
+        String number = value.trim().replace("_", "");
+        long multiplier = 1;
+        char suffix = Character.toUpperCase(number.charAt(number.length() - 1));
+        if (suffix == 'K' || suffix == 'M' || suffix == 'G') {
+            multiplier = suffix == 'K' ? 1_000L : suffix == 'M' ? 1_000_000L : 1_000_000_000L;
+            number = number.substring(0, number.length() - 1);
+        }
+        return Long.parseLong(number) * multiplier;
+    }
+
+    private static String subcategoryOf(String option) {
+        int separator = option.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Очікується Підкатегорія:значення: " + option);
+        }
+        return option.substring(0, separator).trim();
+    }
+
+    private static String valueOf(String option) {
+        return option.substring(option.lastIndexOf(':') + 1).trim();
+    }
+
+    private static final class Profile {
+        private final byte[] category;
+        private final byte[] subcategory;
+        private final boolean expense;
+        private final double cumulativeWeight;
+        private final long medianMinor;
+        private final byte[][] descriptions;
+
+        Profile(String category, String subcategory, double cumulativeWeight, long medianMinor) {
+            this.category = category.getBytes(StandardCharsets.UTF_8);
+            this.subcategory = subcategory.getBytes(StandardCharsets.UTF_8);
+            this.expense = AggregationCube.EXPENSE.equals(category);
+            this.cumulativeWeight = cumulativeWeight;
+            this.medianMinor = medianMinor;
+            String[] texts = DESCRIPTIONS.getOrDefault(subcategory, new String[]{subcategory});
+            this.descriptions = new byte[texts.length][];
+            for (int i = 0; i < texts.length; i++) {
+                descriptions[i] = texts[i].getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private static final class RowWriter {
+        private final byte[] dateBytes = new byte[10];
+        private byte[] bytes;
+        private int size;
+        private long cachedDay = Long.MIN_VALUE;
+        private int dayOfYear;
+
+        RowWriter(int capacity) {
+            bytes = new byte[Math.max(capacity, BYTES_PER_ROW)];
+        }
+
+        void date(long epochDay) {
+            if (epochDay != cachedDay) {
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                cachedDay = epochDay;
+                dayOfYear = date.getDayOfYear();
+                digits(dateBytes, 0, date.getDayOfMonth(), 2);
+                dateBytes[2] = '.';
+                digits(dateBytes, 3, date.getMonthValue(), 2);
+                dateBytes[5] = '.';
+                digits(dateBytes, 6, date.getYear(), 4);
+            }
+            put(dateBytes);
+        }
+
+        void time(int secondOfDay) {
+            ensure(9);
+            bytes[size++] = ' ';
+            digits(bytes, size, secondOfDay / 3600, 2);
+            bytes[size + 2] = ':';
+            digits(bytes, size + 3, secondOfDay / 60 % 60, 2);
+            bytes[size + 5] = ':';
+            digits(bytes, size + 6, secondOfDay % 60, 2);
+            size += 8;
+        }
+
+        RowWriter amount(long minor) {
+            long units = minor / Money.MINOR_UNITS;
+            int fraction = (int) (minor % Money.MINOR_UNITS);
+            int length = 1;
+            for (long rest = units / 10; rest > 0; rest /= 10) {
+                length++;
+            }
+            ensure(length + 3);
+            digits(bytes, size, units, length);
+            size += length;
+            bytes[size++] = '.';
+            digits(bytes, size, fraction, 2);
+            size += 2;
+            return this;
+        }
+
+        RowWriter put(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, size, value.length);
+            size += value.length;
+            return this;
+        }
+
+        RowWriter put(byte value) {
+            ensure(1);
+            bytes[size++] = value;
+            return this;
+        }
+
+        ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        private void ensure(int required) {
+            if (size + required > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + required));
+            }
+        }
+
+        private static void digits(byte[] target, int offset, long value, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                target[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LedgerIndex {
+    private final AggregationCube aggregates = new AggregationCube();
+    private final DescriptionIndex descriptions = new DescriptionIndex();
+    private final CategoryBitmapIndex categories = new CategoryBitmapIndex();
+    private final TimeIndex times = new TimeIndex();
+    private LedgerBinaryFile base;
+    private int baseRows;
+    private int rowCount;
+
+    public void attach(LedgerBinaryFile file) {
+        if (rowCount > 0) {
+            throw new IllegalStateException("Контрольну точку можна підключити лише до порожнього індексу");
+        }
+        base = file;
+        baseRows = file.getRowCount();
+        rowCount = baseRows;
+        file.restoreAggregates(aggregates);
+        file.restoreBitmaps(categories);
+    }
+
+    public void append(LedgerSnapshot tail, int from, int to) {
+        aggregates.addAll(tail, from, to);
+        descriptions.add(tail, from, to, baseRows);
+        categories.add(tail, from, to, baseRows);
+        times.add(tail, from, to, baseRows);
+        rowCount = Math.max(rowCount, baseRows + to);
+    }
+
+    public int[] search(String query, String category) {
+        int[] result = null;
+        if (!query.isBlank()) {
+            List<String> tokens = new ArrayList<>();
+            DescriptionIndex.tokenize(query, tokens);
+            result = new int[0];
+            for (int i = 0; i < tokens.size(); i++) {
+                int[] rows = termRows(tokens.get(i));
+                result = i == 0 ? rows : DescriptionIndex.intersect(result, rows);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+        }
+        if (category != null) {
+            RowBitmap categoryRows = categories.category(category);
+            return result == null ? categoryRows.toArray() : Arrays.stream(result).filter(categoryRows::contains).toArray();
+        }
+        return result == null ? new int[0] : result;
+    }
+
+    private int[] termRows(String token) {
+        int[] tailRows = descriptions.termRows(token);
+        if (base == null) {
+            return tailRows;
+        }
+        return concat(base.termRows(token), tailRows);
+    }
+
+    public int[] categoryRows(String category, LocalDate from, LocalDate to) {
+        RowBitmap categoryRows = categories.category(category);
+        if (from == null && to == null) {
+            return categoryRows.toArray();
+        }
+        long fromSecond = from == null ? Long.MIN_VALUE : from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to == null ? Long.MAX_VALUE : to.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        int[] rangeRows = times.rows(fromSecond, toSecond);
+        if (base != null) {
+            rangeRows = concat(base.rowsInTimeRange(fromSecond, toSecond), rangeRows);
+        }
+        Arrays.sort(rangeRows);
+        return RowBitmap.of(rangeRows).and(categoryRows).toArray();
+    }
+
+    private static int[] concat(int[] head, int[] tail) {
+        if (tail.length == 0) {
+            return head;
+        }
+        int[] rows = Arrays.copyOf(head, head.length + tail.length);
+        System.arraycopy(tail, 0, rows, head.length, tail.length);
+        return rows;
+    }
+
+    public AggregationCube getAggregates() {
+        return aggregates;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+}
@@ -0,0 +1,25 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dniprotech.financialaccounting.LedgerLoad")
+@Label("Завантаження журналу")
+@Category({"Financial Accounting", "Ledger"})
+public class LedgerLoadEvent extends Event {
+    @Label("Файл")
+    public String path;
+
+    @Label("Джерело")
+    public String source;
+
+    @Label("Записів")
+    public long records;
+
+    @Label("Розмір")
+    @DataAmount
+    public long bytes;
+}
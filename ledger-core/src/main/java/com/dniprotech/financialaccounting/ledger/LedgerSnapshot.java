@@ -0,0 +1,92 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+
+public final class LedgerSnapshot {
+    private final long[] epochSeconds;
+    private final long[] amounts;
+    private final int[] categoryIds;
+    private final int[] subcategoryIds;
+    private final int[] descriptionOffsets;
+    private final byte[] descriptionHeap;
+    private final String[] categories;
+    private final String[] subcategories;
+    private final int size;
+    private final long version;
+
+    LedgerSnapshot(long[] epochSeconds, long[] amounts, int[] categoryIds, int[] subcategoryIds,
+                   int[] descriptionOffsets, byte[] descriptionHeap, String[] categories, String[] subcategories,
+                   int size, long version) {
+        this.epochSeconds = epochSeconds;
+        this.amounts = amounts;
+        this.categoryIds = categoryIds;
+        this.subcategoryIds = subcategoryIds;
+        this.descriptionOffsets = descriptionOffsets;
+        this.descriptionHeap = descriptionHeap;
+        this.categories = categories;
+        this.subcategories = subcategories;
+        this.size = size;
+        this.version = version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long epochSecond(int row) {
+        return epochSeconds[row];
+    }
+
+    public long epochDay(int row) {
+        return Math.floorDiv(epochSeconds[row], 86_400L);
+    }
+
+    public LocalDate date(int row) {
+        return LocalDate.ofEpochDay(epochDay(row));
+    }
+
+    public long amountMinor(int row) {
+        return amounts[row];
+    }
+
+    public int categoryId(int row) {
+        return categoryIds[row];
+    }
+
+    public int subcategoryId(int row) {
+        return subcategoryIds[row];
+    }
+
+    public String description(int row) {
+        return StringHeap.get(descriptionHeap, descriptionOffsets[row]);
+    }
+
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    public int subcategoryCount() {
+        return subcategories.length;
+    }
+
+    public String categoryName(int id) {
+        return categories[id];
+    }
+
+    public String subcategoryName(int id) {
+        return subcategories[id];
+    }
+
+    public int findCategory(String category) {
+        for (int id = 0; id < categories.length; id++) {
+            if (categories[id].equals(category)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,14 @@
+package com.dniprotech.financialaccounting.ledger;
+
+public class MalformedRecordException extends Exception {
+    private final int column;
+
+    public MalformedRecordException(String message, int column) {
+        super(message + " (позиція " + column + ")");
+        this.column = column;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
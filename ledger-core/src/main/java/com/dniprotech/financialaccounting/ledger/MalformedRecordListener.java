@@ -0,0 +1,6 @@
+package com.dniprotech.financialaccounting.ledger;
+
+@FunctionalInterface
+public interface MalformedRecordListener {
+    void onMalformedRecord(long lineNumber, String line, String reason);
+}
@@ -0,0 +1,187 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Money {
+    public static final int SCALE = 2;
+    public static final long MINOR_UNITS = 100;
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int MAX_FAST_DIGITS = 17;
+
+    private Money() {
+    }
+
+    public static long parse(String text) {
+        long amount = parse(text, 0, text.length());
+        if (amount == INVALID) {
+            throw new NumberFormatException("Некоректна сума: " + text);
+        }
+        return amount;
+    }
+
+    public static long parse(CharSequence text, int from, int to) {
+        while (from < to && text.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) == ' ') {
+            to--;
+        }
+
+        int position = from;
+        boolean negative = false;
+        if (position < to && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+            negative = text.charAt(position) == '-';
+            position++;
+        }
+
+        long units = 0;
+        int integerDigits = 0;
+        for (; position < to; position++) {
+            char c = text.charAt(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            units = units * 10 + (c - '0');
+            integerDigits++;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        char separator = 0;
+        if (position < to && (text.charAt(position) == '.' || text.charAt(position) == ',')) {
+            separator = text.charAt(position);
+            position++;
+            for (; position < to; position++) {
+                char c = text.charAt(position);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + (c - '0');
+                } else if (fractionDigits == SCALE) {
+                    roundUp = c >= '5';
+                }
+                fractionDigits++;
+            }
+        }
+
+        if (integerDigits + fractionDigits == 0) {
+            return INVALID;
+        }
+        if (position != to || integerDigits > MAX_FAST_DIGITS - SCALE || (separator == ',' && fractionDigits == 3)) {
+            return parseSlow(text, from, to);
+        }
+
+        for (int i = fractionDigits; i < SCALE; i++) {
+            fraction *= 10;
+        }
+        long amount = units * MINOR_UNITS + fraction + (roundUp ? 1 : 0);
+        return negative ? -amount : amount;
+    }
+
+    private static long parseSlow(CharSequence text, int from, int to) {
+        String value = normalize(text, from, to);
+        if (value == null) {
+            return INVALID;
+        }
+        try {
+            return new BigDecimal(value).movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return INVALID;
+        }
+    }
+
+    private static String normalize(CharSequence text, int from, int to) {
+        int commas = 0;
+        int dots = 0;
+        int last = -1;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                commas++;
+                last = i;
+            } else if (c == '.') {
+                dots++;
+                last = i;
+            }
+        }
+        if (last < 0) {
+            return text.subSequence(from, to).toString();
+        }
+
+        char decimal;
+        if (commas > 0 && dots > 0) {
+            decimal = text.charAt(last);
+            if ((decimal == ',' ? commas : dots) > 1) {
+                return null;
+            }
+        } else if (commas + dots > 1) {
+            decimal = 0;
+        } else {
+            decimal = text.charAt(last) == ',' && to - last - 1 == 3 ? 0 : text.charAt(last);
+        }
+
+        StringBuilder value = new StringBuilder(to - from);
+        boolean grouped = false;
+        boolean fraction = false;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == decimal) {
+                if (grouped && digits != 3) {
+                    return null;
+                }
+                value.append('.');
+                fraction = true;
+                digits = 0;
+            } else if (c == ',' || c == '.') {
+                if (fraction || digits == 0 || (grouped ? digits != 3 : digits > 3)) {
+                    return null;
+                }
+                grouped = true;
+                digits = 0;
+            } else {
+                value.append(c);
+                if (c >= '0' && c <= '9') {
+                    digits++;
+                }
+            }
+        }
+        if (grouped && !fraction && digits != 3) {
+            return null;
+        }
+        return value.toString();
+    }
+
+    public static long fromDouble(double amount) {
+        return Math.round(amount * MINOR_UNITS);
+    }
+
+    public static double toDouble(long amount) {
+        return amount / (double) MINOR_UNITS;
+    }
+
+    public static String format(long amount) {
+        return format(amount, new StringBuilder(24), '.').toString();
+    }
+
+    public static StringBuilder format(long amount, StringBuilder target, char decimalSeparator) {
+        if (amount == Long.MIN_VALUE) {
+            return target.append(BigDecimal.valueOf(amount, SCALE).toPlainString().replace('.', decimalSeparator));
+        }
+        if (amount < 0) {
+            target.append('-');
+            amount = -amount;
+        }
+        long units = amount / MINOR_UNITS;
+        int fraction = (int) (amount % MINOR_UNITS);
+        target.append(units).append(decimalSeparator);
+        if (fraction < 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+}
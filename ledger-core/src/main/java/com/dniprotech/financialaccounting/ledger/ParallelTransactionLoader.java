@@ -0,0 +1,193 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class ParallelTransactionLoader {
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int BOUNDARY_PROBE_SIZE = 64 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelTransactionLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelTransactionLoader(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> List<T> load(Path path, long length, Function<TransactionRecord, T> mapper,
+                            MalformedRecordListener malformedListener) throws IOException {
+        List<T> result = new ArrayList<>();
+        load(path, length, mapper, result::addAll, malformedListener, null);
+        return result;
+    }
+
+    public <T> long load(Path path, long length, Function<TransactionRecord, T> mapper, Consumer<List<T>> chunkConsumer,
+                         MalformedRecordListener malformedListener, Consumer<Long> progressListener) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = Math.min(length, channel.size());
+            int window = Math.max(2, pool.getParallelism() * 2);
+            ArrayDeque<ForkJoinTask<ChunkResult<T>>> tasks = new ArrayDeque<>(window);
+            long chunkStart = 0;
+            long recordCount = 0;
+            long lineOffset = 0;
+            while (chunkStart < end || !tasks.isEmpty()) {
+                while (chunkStart < end && tasks.size() < window) {
+                    long chunkEnd = nextLineBoundary(channel, Math.min(end, chunkStart + chunkSize), end);
+                    MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart,
+                            chunkEnd - chunkStart);
+                    tasks.add(pool.submit(new ChunkTask<>(chunk, chunkEnd, mapper)));
+                    chunkStart = chunkEnd;
+                }
+                ChunkResult<T> chunk = joinChunk(tasks.poll());
+                if (malformedListener != null) {
+                    for (MalformedLine malformed : chunk.malformed) {
+                        malformedListener.onMalformedRecord(lineOffset + malformed.lineNumber, malformed.line,
+                                malformed.reason);
+                    }
+                }
+                lineOffset += chunk.lineCount;
+                recordCount += chunk.records.size();
+                chunkConsumer.accept(chunk.records);
+                if (progressListener != null) {
+                    progressListener.accept(chunk.end);
+                }
+            }
+            return recordCount;
+        }
+    }
+
+    private static <T> ChunkResult<T> joinChunk(ForkJoinTask<ChunkResult<T>> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long nextLineBoundary(FileChannel channel, long position, long end) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(BOUNDARY_PROBE_SIZE);
+        while (position < end) {
+            probe.clear();
+            probe.limit((int) Math.min(probe.capacity(), end - position));
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return end;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    private static class ChunkTask<T> extends RecursiveTask<ChunkResult<T>> {
+        private final MappedByteBuffer bytes;
+        private final long end;
+        private final Function<TransactionRecord, T> mapper;
+
+        ChunkTask(MappedByteBuffer bytes, long end, Function<TransactionRecord, T> mapper) {
+            this.bytes = bytes;
+            this.end = end;
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected ChunkResult<T> compute() {
+            ParseBatchEvent event = new ParseBatchEvent();
+            event.begin();
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars;
+            try {
+                chars = decoder.decode(bytes);
+            } catch (CharacterCodingException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            TransactionRecordParser parser = new TransactionRecordParser();
+            ChunkResult<T> result = new ChunkResult<>(end, chars.length() / 96);
+            int limit = chars.limit();
+            int lineStart = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i == limit || chars.get(i) == '\n') {
+                    if (i == limit && lineStart == limit) {
+                        break;
+                    }
+                    result.lineCount++;
+                    parseLine(parser, chars, lineStart, i, result);
+                    lineStart = i + 1;
+                }
+            }
+            if (event.shouldCommit()) {
+                event.records = result.records.size();
+                event.malformed = result.malformed.size();
+                event.bytes = bytes.capacity();
+                event.commit();
+            }
+            return result;
+        }
+
+        private void parseLine(TransactionRecordParser parser, CharBuffer chars, int from, int to, ChunkResult<T> result) {
+            if (to == from || (to - from == 1 && chars.get(from) == '\r')) {
+                return;
+            }
+            try {
+                result.records.add(mapper.apply(parser.parse(chars, from, to)));
+            } catch (MalformedRecordException e) {
+                result.malformed.add(new MalformedLine(result.lineCount, chars.subSequence(from, to).toString(),
+                        e.getMessage()));
+            }
+        }
+    }
+
+    private static class ChunkResult<T> {
+        private final long end;
+        private final List<T> records;
+        private final List<MalformedLine> malformed = new ArrayList<>();
+        private long lineCount;
+
+        ChunkResult(long end, int expectedRecords) {
+            this.end = end;
+            this.records = new ArrayList<>(expectedRecords);
+        }
+    }
+
+    private static class MalformedLine {
+        private final long lineNumber;
+        private final String line;
+        private final String reason;
+
+        MalformedLine(long lineNumber, String line, String reason) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dniprotech.financialaccounting.ParseBatch")
+@Label("Розбір пакета записів")
+@Category({"Financial Accounting", "Ledger"})
+public class ParseBatchEvent extends Event {
+    @Label("Записів")
+    public long records;
+
+    @Label("Некоректних")
+    public long malformed;
+
+    @Label("Розмір")
+    @DataAmount
+    public long bytes;
+}
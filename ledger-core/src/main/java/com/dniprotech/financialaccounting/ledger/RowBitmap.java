@@ -0,0 +1,447 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class RowBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    public static RowBitmap of(int[] sortedRows) {
+        RowBitmap bitmap = new RowBitmap();
+        for (int row : sortedRows) {
+            bitmap.add(row);
+        }
+        return bitmap;
+    }
+
+    public void add(int row) {
+        char key = (char) (row >>> 16);
+        int index;
+        if (size > 0 && keys[size - 1] == key) {
+            index = size - 1;
+        } else {
+            index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                index = insertContainer(-index - 1, key, new ArrayContainer());
+            }
+        }
+        containers[index] = containers[index].add((char) row);
+    }
+
+    public boolean contains(int row) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (row >>> 16));
+        return index >= 0 && containers[index].contains((char) row);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public RowBitmap and(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.insertContainer(result.size, keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public RowBitmap or(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                result.insertContainer(result.size, keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                result.insertContainer(result.size, other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.insertContainer(result.size, keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public int[] toArray() {
+        int[] rows = new int[cardinality()];
+        int[] count = {0};
+        forEach(row -> rows[count[0]++] = row);
+        return rows;
+    }
+
+    public int serializedSize() {
+        int bytes = Integer.BYTES;
+        for (int i = 0; i < size; i++) {
+            bytes += Character.BYTES + Integer.BYTES + payloadSize(containers[i].cardinality());
+        }
+        return bytes;
+    }
+
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            writeContainer(buffer, keys[i], containers[i]);
+        }
+    }
+
+    public static RowBitmap read(ByteBuffer buffer) {
+        RowBitmap bitmap = new RowBitmap();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            char key = buffer.getChar();
+            bitmap.insertContainer(bitmap.size, key, readContainer(buffer, buffer.getInt()));
+        }
+        return bitmap;
+    }
+
+    static void skip(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            buffer.getChar();
+            int cardinality = buffer.getInt();
+            buffer.position(buffer.position() + payloadSize(cardinality));
+        }
+    }
+
+    private static int payloadSize(int cardinality) {
+        return cardinality <= ARRAY_LIMIT ? cardinality * Character.BYTES : BITMAP_WORDS * Long.BYTES;
+    }
+
+    private static void writeContainer(ByteBuffer buffer, char key, Container container) {
+        int cardinality = container.cardinality();
+        buffer.putChar(key).putInt(cardinality);
+        if (cardinality <= ARRAY_LIMIT) {
+            container.forEach(0, value -> buffer.putChar((char) value));
+        } else {
+            for (long word : ((BitmapContainer) container).words) {
+                buffer.putLong(word);
+            }
+        }
+    }
+
+    private static Container readContainer(ByteBuffer buffer, int cardinality) {
+        if (cardinality <= ARRAY_LIMIT) {
+            char[] values = new char[Math.max(cardinality, 1)];
+            for (int j = 0; j < cardinality; j++) {
+                values[j] = buffer.getChar();
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+        long[] words = new long[BITMAP_WORDS];
+        for (int j = 0; j < BITMAP_WORDS; j++) {
+            words[j] = buffer.getLong();
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+
+    private int insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+        return index;
+    }
+
+    interface Sink {
+        ByteBuffer reserve(int bytes) throws IOException;
+    }
+
+    static final class Appender {
+        private final Sink sink;
+        private char key;
+        private Container container;
+        private int count;
+
+        Appender(Sink sink) {
+            this.sink = sink;
+        }
+
+        void append(ByteBuffer serialized, int rowOffset) throws IOException {
+            int containers = serialized.getInt();
+            for (int i = 0; i < containers; i++) {
+                char containerKey = serialized.getChar();
+                Container next = readContainer(serialized, serialized.getInt());
+                if ((rowOffset & 0xFFFF) == 0) {
+                    append((char) (containerKey + (rowOffset >>> 16)), next);
+                    continue;
+                }
+                RowBitmap shifted = new RowBitmap();
+                next.forEach(containerKey << 16, row -> shifted.add(row + rowOffset));
+                for (int j = 0; j < shifted.size; j++) {
+                    append(shifted.keys[j], shifted.containers[j]);
+                }
+            }
+        }
+
+        int finish() throws IOException {
+            flush();
+            int written = count;
+            count = 0;
+            return written;
+        }
+
+        private void append(char nextKey, Container next) throws IOException {
+            if (container != null && key == nextKey) {
+                container = container.or(next);
+                return;
+            }
+            flush();
+            key = nextKey;
+            container = next;
+        }
+
+        private void flush() throws IOException {
+            if (container == null) {
+                return;
+            }
+            int bytes = Character.BYTES + Integer.BYTES + payloadSize(container.cardinality());
+            writeContainer(sink.reserve(bytes), key, container);
+            container = null;
+            count++;
+        }
+    }
+
+    private interface Container {
+        Container add(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        Container and(Container other);
+
+        Container or(Container other);
+
+        Container copy();
+
+        void forEach(int high, IntConsumer consumer);
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            int index;
+            if (cardinality == 0 || values[cardinality - 1] < value) {
+                index = cardinality;
+            } else {
+                index = Arrays.binarySearch(values, 0, cardinality, value);
+                if (index >= 0) {
+                    return this;
+                }
+                index = -index - 1;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            Container result = other.copy();
+            for (int i = 0; i < cardinality; i++) {
+                result = result.add(values[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, count);
+            return count <= ARRAY_LIMIT ? bitmap.toArrayContainer() : bitmap;
+        }
+
+        @Override
+        public Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    result.add(array.values[i]);
+                }
+                return result;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= otherWords[i];
+                count += Long.bitCount(result.words[i]);
+            }
+            result.cardinality = count;
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private ArrayContainer toArrayContainer() {
+            char[] values = new char[Math.max(cardinality, 1)];
+            int[] count = {0};
+            forEach(0, value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public final class SeriesDownsampler {
+
+    private SeriesDownsampler() {
+    }
+
+    public static SortedMap<LocalDate, Long> bucket(SortedMap<LocalDate, Long> daily, ChartResolution resolution) {
+        if (resolution == ChartResolution.DAY) {
+            return daily;
+        }
+        SortedMap<LocalDate, Long> result = new TreeMap<>();
+        for (Map.Entry<LocalDate, Long> entry : daily.entrySet()) {
+            result.merge(resolution.bucketStart(entry.getKey()), entry.getValue(), Long::sum);
+        }
+        return result;
+    }
+
+    public static int[] largestTriangleThreeBuckets(long[] x, long[] y, int threshold) {
+        int size = x.length;
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+        selected[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double previousX = x[previous];
+            double previousY = y[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previousX - averageX) * (y[i] - previousY)
+                        - (previousX - x[i]) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,532 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class StatementImporter {
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("dd-MM-uuuu").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("dd.MM.uu").withResolverStyle(ResolverStyle.STRICT)
+    };
+
+    public enum Format {
+        CSV, OFX;
+
+        public static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ofx") || name.endsWith(".qfx") ? OFX : CSV;
+        }
+    }
+
+    private final ImportRules rules;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int batchSize;
+
+    public StatementImporter(ImportRules rules) {
+        this(rules, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), DEFAULT_BATCH_SIZE);
+    }
+
+    public StatementImporter(ImportRules rules, ExecutorService executor, int parallelism, int batchSize) {
+        this.rules = rules;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.batchSize = batchSize;
+    }
+
+    public Summary importFile(Path path, Consumer<List<TransactionRecord>> committer, MalformedRecordListener rejectedListener,
+                              Consumer<Long> progressListener) throws IOException {
+        long start = System.nanoTime();
+        Summary summary = new Summary();
+        ArrayDeque<Future<Batch>> inFlight = new ArrayDeque<>();
+        try (CountingInputStream input = new CountingInputStream(Files.newInputStream(path));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, rules.getCharset()), READ_BUFFER_SIZE)) {
+            RecordSource source = Format.of(path) == Format.OFX ? new OfxSource(reader) : new CsvSource(reader, rules);
+            Batch batch = new Batch(batchSize);
+            while (source.next(batch)) {
+                if (batch.size == batchSize) {
+                    inFlight.add(executor.submit(converter(source, batch)));
+                    batch = new Batch(batchSize);
+                    while (inFlight.size() >= parallelism * 2) {
+                        commit(inFlight.poll(), committer, rejectedListener, summary);
+                        progress(progressListener, input);
+                    }
+                }
+            }
+            for (int i = 0; i < source.getRejectedCount(); i++) {
+                summary.rejected++;
+                rejectedListener.onMalformedRecord(source.getRejectedLine(i), source.getRejectedText(i), source.getRejectedReason(i));
+            }
+            if (batch.size > 0) {
+                inFlight.add(executor.submit(converter(source, batch)));
+            }
+            while (!inFlight.isEmpty()) {
+                commit(inFlight.poll(), committer, rejectedListener, summary);
+            }
+            summary.bytes = input.count;
+            progress(progressListener, input);
+        } finally {
+            for (Future<Batch> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    private static void progress(Consumer<Long> progressListener, CountingInputStream input) {
+        if (progressListener != null) {
+            progressListener.accept(input.count);
+        }
+    }
+
+    private static Callable<Batch> converter(RecordSource source, Batch batch) {
+        return () -> {
+            for (int i = 0; i < batch.size; i++) {
+                try {
+                    batch.records.add(source.convert(batch.texts[i]));
+                    batch.reasons[i] = null;
+                } catch (MalformedRecordException e) {
+                    batch.records.add(null);
+                    batch.reasons[i] = e.getMessage();
+                }
+            }
+            return batch;
+        };
+    }
+
+    private void commit(Future<Batch> future, Consumer<List<TransactionRecord>> committer,
+                        MalformedRecordListener rejectedListener, Summary summary) throws IOException {
+        Batch batch;
+        try {
+            batch = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Імпорт перервано", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Помилка перетворення виписки", e.getCause());
+        }
+        List<TransactionRecord> accepted = new ArrayList<>(batch.size);
+        for (int i = 0; i < batch.size; i++) {
+            TransactionRecord record = batch.records.get(i);
+            if (record == null) {
+                summary.rejected++;
+                rejectedListener.onMalformedRecord(batch.lineNumbers[i], batch.texts[i], batch.reasons[i]);
+            } else {
+                accepted.add(record);
+            }
+        }
+        summary.imported += accepted.size();
+        if (!accepted.isEmpty()) {
+            committer.accept(accepted);
+        }
+    }
+
+    static LocalDate parseDate(String text) {
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+        }
+        return null;
+    }
+
+    static LocalTime parseTime(String text) {
+        try {
+            return LocalTime.parse(text.length() == 5 ? text + ":00" : text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static long parseAmount(String text) {
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != ' ' && c != '\u00A0' && c != '\u202F' && c != '\'') {
+                digits.append(c == '\u2212' ? '-' : c);
+            }
+        }
+        return Money.parse(digits, 0, digits.length());
+    }
+
+    TransactionRecord record(LocalDate date, LocalTime time, long signedAmount, String description) {
+        String cleanDescription = description.replace('\r', ' ').replace('\n', ' ').trim();
+        ImportRules.Rule rule = rules.classify(cleanDescription, signedAmount);
+        return new TransactionRecord(date, time, rule.getCategory(), rule.getSubcategory(), Math.abs(signedAmount), cleanDescription);
+    }
+
+    private abstract class RecordSource {
+        private final List<Object[]> rejected = new ArrayList<>();
+
+        abstract boolean next(Batch batch) throws IOException;
+
+        abstract TransactionRecord convert(String text) throws MalformedRecordException;
+
+        void reject(long lineNumber, String text, String reason) {
+            rejected.add(new Object[]{lineNumber, text, reason});
+        }
+
+        int getRejectedCount() {
+            return rejected.size();
+        }
+
+        long getRejectedLine(int index) {
+            return (Long) rejected.get(index)[0];
+        }
+
+        String getRejectedText(int index) {
+            return (String) rejected.get(index)[1];
+        }
+
+        String getRejectedReason(int index) {
+            return (String) rejected.get(index)[2];
+        }
+    }
+
+    private final class CsvSource extends RecordSource {
+        private final BufferedReader reader;
+        private char delimiter;
+        private int dateColumn = -1;
+        private int timeColumn = -1;
+        private int amountColumn = -1;
+        private int descriptionColumn = -1;
+        private long lineNumber;
+
+        private CsvSource(BufferedReader reader, ImportRules rules) throws IOException {
+            this.reader = reader;
+            String header;
+            while ((header = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && header.startsWith("\uFEFF")) {
+                    header = header.substring(1);
+                }
+                if (!header.isBlank()) {
+                    break;
+                }
+            }
+            if (header == null) {
+                return;
+            }
+            delimiter = detectDelimiter(header);
+            String[] columns = split(header, delimiter);
+            dateColumn = rules.columnIndex(ImportRules.DATE, columns);
+            timeColumn = rules.columnIndex(ImportRules.TIME, columns);
+            amountColumn = rules.columnIndex(ImportRules.AMOUNT, columns);
+            descriptionColumn = rules.columnIndex(ImportRules.DESCRIPTION, columns);
+            if (dateColumn < 0 || amountColumn < 0) {
+                throw new IOException("У заголовку CSV не знайдено колонок дати та суми: " + header);
+            }
+        }
+
+        @Override
+        boolean next(Batch batch) throws IOException {
+            if (dateColumn < 0) {
+                return false;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    batch.add(lineNumber, line);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        TransactionRecord convert(String line) throws MalformedRecordException {
+            String[] fields = split(line, delimiter);
+            int required = Math.max(dateColumn, Math.max(amountColumn, Math.max(timeColumn, descriptionColumn)));
+            if (fields.length <= required) {
+                throw new MalformedRecordException("Недостатньо колонок", fields.length);
+            }
+
+            String dateText = fields[dateColumn].trim();
+            String timeText = timeColumn >= 0 ? fields[timeColumn].trim() : "";
+            int separator = dateText.indexOf(' ') >= 0 ? dateText.indexOf(' ') : dateText.indexOf('T');
+            if (separator > 0) {
+                if (timeText.isEmpty()) {
+                    timeText = dateText.substring(separator + 1).trim();
+                }
+                dateText = dateText.substring(0, separator);
+            }
+            LocalDate date = parseDate(dateText);
+            if (date == null) {
+                throw new MalformedRecordException("Некоректна дата: " + dateText, dateColumn + 1);
+            }
+            LocalTime time = timeText.isEmpty() ? LocalTime.MIDNIGHT : parseTime(timeText);
+            if (time == null) {
+                throw new MalformedRecordException("Некоректний час: " + timeText, Math.max(timeColumn, dateColumn) + 1);
+            }
+            long amount = parseAmount(fields[amountColumn]);
+            if (amount == Money.INVALID || amount == 0) {
+                throw new MalformedRecordException("Некоректна сума: " + fields[amountColumn].trim(), amountColumn + 1);
+            }
+            String description = descriptionColumn >= 0 ? fields[descriptionColumn] : "";
+            return record(date, time.withNano(0), amount, description);
+        }
+    }
+
+    private final class OfxSource extends RecordSource {
+        private final BufferedReader reader;
+        private final StringBuilder block = new StringBuilder();
+        private String pending = "";
+        private long lineNumber;
+        private long blockLine;
+        private boolean inTransaction;
+
+        private OfxSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        boolean next(Batch batch) throws IOException {
+            while (true) {
+                int tag = pending.indexOf('<');
+                if (tag < 0) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        if (inTransaction) {
+                            reject(blockLine, block.toString(), "Незавершений блок STMTTRN");
+                            inTransaction = false;
+                        }
+                        return false;
+                    }
+                    lineNumber++;
+                    pending = line;
+                    continue;
+                }
+                int nextTag = pending.indexOf('<', tag + 1);
+                String token = (nextTag < 0 ? pending.substring(tag) : pending.substring(tag, nextTag)).trim();
+                pending = nextTag < 0 ? "" : pending.substring(nextTag);
+                String upper = token.toUpperCase(Locale.ROOT);
+                if (upper.startsWith("<STMTTRN>")) {
+                    if (inTransaction) {
+                        reject(blockLine, block.toString(), "Незавершений блок STMTTRN");
+                    }
+                    inTransaction = true;
+                    blockLine = lineNumber;
+                    block.setLength(0);
+                } else if (upper.startsWith("</STMTTRN>")) {
+                    if (inTransaction) {
+                        inTransaction = false;
+                        batch.add(blockLine, block.toString());
+                        return true;
+                    }
+                } else if (inTransaction && !upper.startsWith("</")) {
+                    block.append(token).append('\n');
+                }
+            }
+        }
+
+        @Override
+        TransactionRecord convert(String text) throws MalformedRecordException {
+            String posted = tag(text, "DTPOSTED");
+            String amountText = tag(text, "TRNAMT");
+            if (posted == null || posted.length() < 8) {
+                throw new MalformedRecordException("Відсутня або некоректна DTPOSTED", 0);
+            }
+            LocalDate date;
+            LocalTime time = LocalTime.MIDNIGHT;
+            try {
+                date = LocalDate.of(Integer.parseInt(posted.substring(0, 4)), Integer.parseInt(posted.substring(4, 6)),
+                        Integer.parseInt(posted.substring(6, 8)));
+                if (posted.length() >= 14 && Character.isDigit(posted.charAt(13))) {
+                    time = LocalTime.of(Integer.parseInt(posted.substring(8, 10)), Integer.parseInt(posted.substring(10, 12)),
+                            Integer.parseInt(posted.substring(12, 14)));
+                }
+            } catch (RuntimeException e) {
+                throw new MalformedRecordException("Некоректна DTPOSTED: " + posted, 0);
+            }
+            long amount = amountText == null ? Money.INVALID : parseAmount(amountText);
+            if (amount == Money.INVALID || amount == 0) {
+                throw new MalformedRecordException("Некоректна TRNAMT: " + amountText, 0);
+            }
+            String name = tag(text, "NAME");
+            String memo = tag(text, "MEMO");
+            String description = name == null ? (memo == null ? "" : memo)
+                    : memo == null || memo.equals(name) ? name : name + " " + memo;
+            return record(date, time, amount, description);
+        }
+
+        private String tag(String block, String name) {
+            String open = "<" + name + ">";
+            int start = indexOfIgnoreCase(block, open);
+            if (start < 0) {
+                return null;
+            }
+            start += open.length();
+            int end = block.indexOf('\n', start);
+            int close = block.indexOf('<', start);
+            if (close >= 0 && (end < 0 || close < end)) {
+                end = close;
+            }
+            return unescape(block.substring(start, end < 0 ? block.length() : end).trim());
+        }
+    }
+
+    private static int indexOfIgnoreCase(String text, String token) {
+        int limit = text.length() - token.length();
+        for (int i = 0; i <= limit; i++) {
+            if (text.regionMatches(true, i, token, 0, token.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    static char detectDelimiter(String header) {
+        char[] candidates = {';', ',', '\t', '|'};
+        char best = ',';
+        int bestCount = 0;
+        for (char candidate : candidates) {
+            int count = split(header, candidate).length;
+            if (count > bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    static String[] split(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static final class Batch {
+        private final long[] lineNumbers;
+        private final String[] texts;
+        private final String[] reasons;
+        private final List<TransactionRecord> records;
+        private int size;
+
+        private Batch(int capacity) {
+            lineNumbers = new long[capacity];
+            texts = new String[capacity];
+            reasons = new String[capacity];
+            records = new ArrayList<>(capacity);
+        }
+
+        private void add(long lineNumber, String text) {
+            lineNumbers[size] = lineNumber;
+            texts[size] = text;
+            size++;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    public static final class Summary {
+        private long imported;
+        private long rejected;
+        private long bytes;
+        private long elapsedNanos;
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getMegabytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytes / (1024.0 * 1024.0) / (elapsedNanos / 1e9);
+        }
+    }
+}
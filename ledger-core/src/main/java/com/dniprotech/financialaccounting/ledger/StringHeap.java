@@ -0,0 +1,110 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class StringHeap {
+    private static final int DEDUPLICATION_SLOTS = 4096;
+
+    private byte[] heap = new byte[16 * 1024];
+    private int size;
+    private final int[] recentOffsets = new int[DEDUPLICATION_SLOTS];
+
+    public StringHeap() {
+        Arrays.fill(recentOffsets, -1);
+    }
+
+    public int add(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return add(bytes, 0, bytes.length);
+    }
+
+    public int copyFrom(StringHeap other, int offset) {
+        int length = other.readLength(offset);
+        return add(other.heap, offset + lengthPrefixSize(length), length);
+    }
+
+    private int add(byte[] bytes, int from, int length) {
+        int hash = 1;
+        for (int i = from; i < from + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (DEDUPLICATION_SLOTS - 1);
+        int cached = recentOffsets[slot];
+        if (cached >= 0 && readLength(cached) == length) {
+            int start = cached + lengthPrefixSize(length);
+            if (Arrays.equals(heap, start, start + length, bytes, from, from + length)) {
+                return cached;
+            }
+        }
+
+        int offset = size;
+        ensureCapacity(size + 5 + length);
+        int remaining = length;
+        while (remaining >= 0x80) {
+            heap[size++] = (byte) (remaining | 0x80);
+            remaining >>>= 7;
+        }
+        heap[size++] = (byte) remaining;
+        System.arraycopy(bytes, from, heap, size, length);
+        size += length;
+        recentOffsets[slot] = offset;
+        return offset;
+    }
+
+    public String get(int offset) {
+        return get(heap, offset);
+    }
+
+    static String get(byte[] heap, int offset) {
+        int length = readLength(heap, offset);
+        return new String(heap, offset + lengthPrefixSize(length), length, StandardCharsets.UTF_8);
+    }
+
+    byte[] array() {
+        return heap;
+    }
+
+    public int sizeInBytes() {
+        return size;
+    }
+
+    private int readLength(int offset) {
+        return readLength(heap, offset);
+    }
+
+    private static int readLength(byte[] heap, int offset) {
+        int length = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = heap[offset++];
+            length |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return length;
+    }
+
+    private static int lengthPrefixSize(int length) {
+        int bytes = 1;
+        while (length >= 0x80) {
+            length >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private void ensureCapacity(long required) {
+        if (required <= heap.length) {
+            return;
+        }
+        long capacity = Math.max(required, (long) heap.length * 2);
+        if (capacity > Integer.MAX_VALUE - 8) {
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Сховище рядків перевищує 2 ГБ");
+            }
+            capacity = Integer.MAX_VALUE - 8;
+        }
+        heap = Arrays.copyOf(heap, (int) capacity);
+    }
+}
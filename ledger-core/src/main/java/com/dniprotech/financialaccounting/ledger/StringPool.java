@@ -0,0 +1,39 @@
+package com.dniprotech.financialaccounting.ledger;
+
+public class StringPool {
+    private final String[] table;
+    private final int mask;
+
+    public StringPool(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.table = new String[size];
+        this.mask = size - 1;
+    }
+
+    public String intern(CharSequence source, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = table[slot];
+        if (cached != null && cached.hashCode() == hash && regionEquals(cached, source, from, to)) {
+            return cached;
+        }
+        String value = source.subSequence(from, to).toString();
+        table[slot] = value;
+        return value;
+    }
+
+    private static boolean regionEquals(String cached, CharSequence source, int from, int to) {
+        if (cached.length() != to - from) {
+            return false;
+        }
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != source.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+package com.dniprotech.financialaccounting.ledger;
+
+public class Subcategory {
+    private final String name;
+
+    public Subcategory(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,159 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class TimeIndex {
+    private static final int NIL = -1;
+
+    private final SplittableRandom random = new SplittableRandom(0x71E);
+    private long[] seconds = new long[1024];
+    private int[] rows = new int[1024];
+    private int[] priorities = new int[1024];
+    private int[] left = new int[1024];
+    private int[] right = new int[1024];
+    private int[] counts = new int[1024];
+    private int root = NIL;
+    private int size;
+
+    public void add(LedgerSnapshot snapshot, int from, int to, int rowOffset) {
+        ensureCapacity(size + to - from);
+        for (int row = from; row < to; row++) {
+            int node = size++;
+            seconds[node] = snapshot.epochSecond(row);
+            rows[node] = rowOffset + row;
+            priorities[node] = random.nextInt();
+            left[node] = NIL;
+            right[node] = NIL;
+            counts[node] = 1;
+            root = insert(root, node);
+        }
+    }
+
+    public int[] rows(long fromSecond, long toSecond) {
+        int from = lowerBound(fromSecond);
+        int to = Math.max(from, lowerBound(toSecond));
+        int[] result = new int[to - from];
+        collect(root, fromSecond, toSecond, result, 0);
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int collect(int node, long fromSecond, long toSecond, int[] result, int position) {
+        while (node != NIL) {
+            if (seconds[node] >= fromSecond) {
+                position = collect(left[node], fromSecond, toSecond, result, position);
+            }
+            if (seconds[node] >= toSecond) {
+                return position;
+            }
+            if (seconds[node] >= fromSecond) {
+                result[position++] = rows[node];
+            }
+            node = right[node];
+        }
+        return position;
+    }
+
+    private int insert(int node, int inserted) {
+        if (node == NIL) {
+            return inserted;
+        }
+        if (seconds[inserted] < seconds[node]) {
+            left[node] = insert(left[node], inserted);
+            if (priorities[left[node]] > priorities[node]) {
+                return rotateRight(node);
+            }
+        } else {
+            right[node] = insert(right[node], inserted);
+            if (priorities[right[node]] > priorities[node]) {
+                return rotateLeft(node);
+            }
+        }
+        counts[node]++;
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(int node) {
+        counts[node] = 1 + count(left[node]) + count(right[node]);
+    }
+
+    private int count(int node) {
+        return node == NIL ? 0 : counts[node];
+    }
+
+    private int lowerBound(long second) {
+        int position = 0;
+        int node = root;
+        while (node != NIL) {
+            if (seconds[node] < second) {
+                position += count(left[node]) + 1;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return position;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= seconds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, seconds.length * 2);
+        seconds = Arrays.copyOf(seconds, newCapacity);
+        rows = Arrays.copyOf(rows, newCapacity);
+        priorities = Arrays.copyOf(priorities, newCapacity);
+        left = Arrays.copyOf(left, newCapacity);
+        right = Arrays.copyOf(right, newCapacity);
+        counts = Arrays.copyOf(counts, newCapacity);
+    }
+
+    static void sort(long[] keys, int[] values, int size) {
+        long[] keyBuffer = new long[size];
+        int[] valueBuffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, size);
+                if (keys[middle - 1] <= keys[middle]) {
+                    continue;
+                }
+                System.arraycopy(keys, low, keyBuffer, low, high - low);
+                System.arraycopy(values, low, valueBuffer, low, high - low);
+                int left = low;
+                int right = middle;
+                for (int k = low; k < high; k++) {
+                    if (right >= high || (left < middle && keyBuffer[left] <= keyBuffer[right])) {
+                        keys[k] = keyBuffer[left];
+                        values[k] = valueBuffer[left++];
+                    } else {
+                        keys[k] = keyBuffer[right];
+                        values[k] = valueBuffer[right++];
+                    }
+                }
+            }
+        }
+    }
+}
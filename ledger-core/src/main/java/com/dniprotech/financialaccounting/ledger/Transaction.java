@@ -0,0 +1,55 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDateTime;
+
+public class Transaction {
+    private final LocalDateTime dateTime;
+    private final String category;
+    private final String subcategory;
+    private final long amount;
+    private final String description;
+
+    public Transaction(LocalDateTime dateTime, String category, String subcategory, long amount, String description) {
+        this.dateTime = dateTime;
+        this.category = category;
+        this.subcategory = subcategory;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getSubcategory() {
+        return subcategory;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getIncome() {
+        return amount > 0 ? amount : 0;
+    }
+
+    public long getExpense() {
+        return amount < 0 ? -amount : 0;
+    }
+
+    public String toRecordString() {
+        return TransactionRecord.format(dateTime, category, subcategory, amount, description);
+    }
+
+    public int getMonth() {
+        return dateTime.getMonthValue();
+    }
+}
@@ -0,0 +1,188 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionJournal implements Closeable {
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private final Path path;
+    private final FsyncPolicy policy;
+    private final ScheduledExecutorService flusher;
+    private FileChannel channel;
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private int pendingRecords;
+    private long committedOffset;
+    private IOException failure;
+
+    public TransactionJournal(Path path, FsyncPolicy policy) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.path = path;
+        this.channel = openChannel(path);
+        this.policy = policy;
+        this.committedOffset = channel.size();
+        if (endsWithTornLine(path, committedOffset)) {
+            pending.put((byte) '\n');
+        }
+
+        if (policy.getMode() == FsyncPolicy.Mode.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, policy.getValue(), policy.getValue(),
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public synchronized void append(String record) throws IOException {
+        checkFailure();
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(bytes.length + 1);
+        pending.put(bytes).put((byte) '\n');
+        pendingRecords++;
+
+        if (policy.getMode() == FsyncPolicy.Mode.PER_RECORD
+                || (policy.getMode() == FsyncPolicy.Mode.RECORD_COUNT && pendingRecords >= policy.getValue())) {
+            flush();
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        checkFailure();
+        if (pendingRecords == 0) {
+            return;
+        }
+        JournalFlushEvent event = new JournalFlushEvent();
+        event.begin();
+        pending.flip();
+        int bytes = pending.remaining();
+        try {
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        pending.clear();
+        int records = pendingRecords;
+        pendingRecords = 0;
+        committedOffset = channel.size();
+        if (event.shouldCommit()) {
+            event.records = records;
+            event.bytes = bytes;
+            event.offset = committedOffset;
+            event.commit();
+        }
+    }
+
+    public LedgerCompactor.Stats compact() throws IOException {
+        long covered;
+        synchronized (this) {
+            flush();
+            covered = committedOffset;
+        }
+        try (LedgerCompactor compactor = new LedgerCompactor(path)) {
+            compactor.copyDistinct(0, covered);
+            synchronized (this) {
+                flush();
+                compactor.copyDistinct(covered, committedOffset);
+                LedgerCompactor.Stats stats = compactor.commit();
+                channel.close();
+                try {
+                    channel = openChannel(path);
+                } catch (IOException e) {
+                    failure = e;
+                    throw e;
+                }
+                committedOffset = channel.size();
+                if (pendingRecords == 0) {
+                    pending.clear();
+                }
+                return stats;
+            }
+        }
+    }
+
+    public synchronized long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    public synchronized int getPendingRecords() {
+        return pendingRecords;
+    }
+
+    private void flushQuietly() {
+        synchronized (this) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    private static boolean endsWithTornLine(Path path, long size) throws IOException {
+        if (size == 0) {
+            return false;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+            reader.read(last, size - 1);
+        }
+        return last.get(0) != '\n';
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Журнал транзакцій недоступний після помилки запису", failure);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (pending.remaining() >= required) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + required));
+        pending.flip();
+        larger.put(pending);
+        pending = larger;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        synchronized (this) {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
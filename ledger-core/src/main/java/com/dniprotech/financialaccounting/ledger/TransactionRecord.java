@@ -0,0 +1,66 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+public class TransactionRecord {
+    private static final ThreadLocal<TransactionRecordParser> PARSER = ThreadLocal.withInitial(TransactionRecordParser::new);
+
+    private LocalDate date;
+    private LocalTime time;
+    private String category;
+    private String subcategory;
+    private long amount;
+    private String description;
+
+    public TransactionRecord(LocalDate date, LocalTime time, String category, String subcategory, long amount, String description) {
+        this.date = date;
+        this.time = time;
+        this.category = category;
+        this.subcategory = subcategory;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public static TransactionRecord fromString(String line) {
+        try {
+            return PARSER.get().parse(line);
+        } catch (MalformedRecordException e) {
+            return null;
+        }
+    }
+
+    public static String format(LocalDateTime dateTime, String category, String subcategory, long amount, String description) {
+        return dateTime.format(TransactionRecordParser.DATE_TIME_FORMATTER) + " - Категорія: " + category
+                + " - Підкатегорія: " + subcategory + ", Сума: " + Money.format(amount) + ", Опис: " + description;
+    }
+
+    public String toRecordString() {
+        return format(LocalDateTime.of(date, time), category, subcategory, amount, description);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getSubcategory() {
+        return subcategory;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,146 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+public class TransactionRecordParser {
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private static final String CATEGORY_PREFIX = " - Категорія: ";
+    private static final String SUBCATEGORY_PREFIX = " - Підкатегорія: ";
+    private static final String AMOUNT_PREFIX = ", Сума: ";
+    private static final String LEGACY_AMOUNT_PREFIX = " - Сума: ";
+    private static final String DESCRIPTION_PREFIX = ", Опис: ";
+    private static final String LEGACY_DESCRIPTION_PREFIX = " - Опис: ";
+    private static final int DATE_TIME_LENGTH = 19;
+
+    private final StringPool namePool = new StringPool(64);
+    private final StringPool descriptionPool = new StringPool(4096);
+
+    private LocalDate lastDate;
+    private int lastDateKey = -1;
+
+    public TransactionRecord parse(CharSequence line) throws MalformedRecordException {
+        return parse(line, 0, line.length());
+    }
+
+    public TransactionRecord parse(CharSequence line, int from, int to) throws MalformedRecordException {
+        if (to > from && line.charAt(to - 1) == '\r') {
+            to--;
+        }
+        if (to - from < DATE_TIME_LENGTH) {
+            throw new MalformedRecordException("Рядок занадто короткий", 0);
+        }
+
+        int day = twoDigits(line, from);
+        int month = twoDigits(line, from + 3);
+        int century = twoDigits(line, from + 6);
+        int yearOfCentury = twoDigits(line, from + 8);
+        int hour = twoDigits(line, from + 11);
+        int minute = twoDigits(line, from + 14);
+        int second = twoDigits(line, from + 17);
+        if ((day | month | century | yearOfCentury | hour | minute | second) < 0
+                || line.charAt(from + 2) != '.' || line.charAt(from + 5) != '.'
+                || line.charAt(from + 10) != ' '
+                || line.charAt(from + 13) != ':' || line.charAt(from + 16) != ':') {
+            throw new MalformedRecordException("Некоректна дата або час", 0);
+        }
+
+        LocalDate date;
+        LocalTime time;
+        try {
+            date = date(century * 100 + yearOfCentury, month, day);
+            time = LocalTime.of(hour, minute, second);
+        } catch (DateTimeException e) {
+            throw new MalformedRecordException("Некоректна дата або час", 0);
+        }
+
+        int position = from + DATE_TIME_LENGTH;
+        if (!regionMatches(line, position, to, CATEGORY_PREFIX)) {
+            throw new MalformedRecordException("Очікувалось поле категорії", position - from);
+        }
+        int categoryStart = position + CATEGORY_PREFIX.length();
+        int categoryEnd = indexOf(line, SUBCATEGORY_PREFIX, categoryStart, to);
+        if (categoryEnd < 0) {
+            throw new MalformedRecordException("Очікувалось поле підкатегорії", categoryStart - from);
+        }
+
+        int subcategoryStart = categoryEnd + SUBCATEGORY_PREFIX.length();
+        int subcategoryEnd = indexOf(line, AMOUNT_PREFIX, subcategoryStart, to);
+        int amountStart;
+        if (subcategoryEnd >= 0) {
+            amountStart = subcategoryEnd + AMOUNT_PREFIX.length();
+        } else {
+            subcategoryEnd = indexOf(line, LEGACY_AMOUNT_PREFIX, subcategoryStart, to);
+            if (subcategoryEnd < 0) {
+                throw new MalformedRecordException("Очікувалось поле суми", subcategoryStart - from);
+            }
+            amountStart = subcategoryEnd + LEGACY_AMOUNT_PREFIX.length();
+        }
+
+        int amountEnd = indexOf(line, DESCRIPTION_PREFIX, amountStart, to);
+        int descriptionStart;
+        if (amountEnd >= 0) {
+            descriptionStart = amountEnd + DESCRIPTION_PREFIX.length();
+        } else {
+            amountEnd = indexOf(line, LEGACY_DESCRIPTION_PREFIX, amountStart, to);
+            if (amountEnd < 0) {
+                throw new MalformedRecordException("Очікувалось поле опису", amountStart - from);
+            }
+            descriptionStart = amountEnd + LEGACY_DESCRIPTION_PREFIX.length();
+        }
+
+        long amount = Money.parse(line, amountStart, amountEnd);
+        if (amount == Money.INVALID) {
+            throw new MalformedRecordException("Некоректна сума", amountStart - from);
+        }
+        String category = namePool.intern(line, categoryStart, categoryEnd);
+        String subcategory = namePool.intern(line, subcategoryStart, subcategoryEnd);
+        String description = descriptionPool.intern(line, descriptionStart, to);
+        return new TransactionRecord(date, time, category, subcategory, amount, description);
+    }
+
+    private LocalDate date(int year, int month, int day) {
+        int key = (year * 100 + month) * 100 + day;
+        if (key != lastDateKey) {
+            lastDate = LocalDate.of(year, month, day);
+            lastDateKey = key;
+        }
+        return lastDate;
+    }
+
+    private static int twoDigits(CharSequence line, int position) {
+        int high = line.charAt(position) - '0';
+        int low = line.charAt(position + 1) - '0';
+        if (high < 0 || high > 9 || low < 0 || low > 9) {
+            return -1;
+        }
+        return high * 10 + low;
+    }
+
+    private static boolean regionMatches(CharSequence line, int position, int to, String expected) {
+        if (to - position < expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (line.charAt(position + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence line, String needle, int from, int to) {
+        char first = needle.charAt(0);
+        int last = to - needle.length();
+        for (int i = from; i <= last; i++) {
+            if (line.charAt(i) == first && regionMatches(line, i, to, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,154 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+public class TransactionRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long limit;
+    private final TransactionRecordParser parser = new TransactionRecordParser();
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private long lineNumber;
+    private long position;
+    private long malformedCount;
+
+    public TransactionRecordReader(Path path) throws IOException {
+        this(path, Long.MAX_VALUE);
+    }
+
+    public TransactionRecordReader(Path path, long limit) throws IOException {
+        this(path, 0, limit);
+    }
+
+    public TransactionRecordReader(Path path, long start, long limit) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.channel.position(start);
+        this.position = start;
+        this.limit = limit;
+    }
+
+    public long read(Consumer<TransactionRecord> sink, MalformedRecordListener malformedListener) throws IOException {
+        long recordCount = 0;
+        while (true) {
+            ParseBatchEvent event = new ParseBatchEvent();
+            event.begin();
+            long malformedBefore = malformedCount;
+            long batchRecords;
+            int read = readBytes();
+            boolean endOfInput = read < 0;
+            if (read > 0) {
+                position += read;
+            }
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            bytes.compact();
+            if (result.isOverflow()) {
+                batchRecords = drainLines(sink, malformedListener, false);
+                if (!chars.hasRemaining()) {
+                    chars = grow(chars);
+                }
+            } else if (endOfInput) {
+                decoder.flush(chars);
+                batchRecords = drainLines(sink, malformedListener, true);
+            } else {
+                batchRecords = drainLines(sink, malformedListener, false);
+            }
+            recordCount += batchRecords;
+            if (event.shouldCommit()) {
+                event.records = batchRecords;
+                event.malformed = malformedCount - malformedBefore;
+                event.bytes = Math.max(read, 0);
+                event.commit();
+            }
+            if (endOfInput) {
+                return recordCount;
+            }
+        }
+    }
+
+    private int readBytes() throws IOException {
+        long allowed = Math.min(bytes.remaining(), limit - position);
+        if (allowed <= 0) {
+            return bytes.remaining() == 0 ? 0 : -1;
+        }
+        int bufferLimit = bytes.limit();
+        bytes.limit(bytes.position() + (int) allowed);
+        int read = channel.read(bytes);
+        bytes.limit(bufferLimit);
+        return read;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+
+    private long drainLines(Consumer<TransactionRecord> sink, MalformedRecordListener malformedListener,
+                            boolean endOfInput) {
+        chars.flip();
+        long recordCount = 0;
+        int lineStart = 0;
+        int limit = chars.limit();
+        for (int i = 0; i < limit; i++) {
+            if (chars.get(i) == '\n') {
+                recordCount += parseLine(lineStart, i, sink, malformedListener);
+                lineStart = i + 1;
+            }
+        }
+        if (endOfInput && lineStart < limit) {
+            recordCount += parseLine(lineStart, limit, sink, malformedListener);
+            lineStart = limit;
+        }
+        chars.position(lineStart);
+        chars.compact();
+        return recordCount;
+    }
+
+    private int parseLine(int from, int to, Consumer<TransactionRecord> sink, MalformedRecordListener malformedListener) {
+        lineNumber++;
+        if (to == from || (to - from == 1 && chars.get(from) == '\r')) {
+            return 0;
+        }
+        try {
+            sink.accept(parser.parse(chars, from, to));
+            return 1;
+        } catch (MalformedRecordException e) {
+            malformedCount++;
+            if (malformedListener != null) {
+                malformedListener.onMalformedRecord(lineNumber, chars.subSequence(from, to).toString(), e.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    private static CharBuffer grow(CharBuffer buffer) {
+        CharBuffer larger = CharBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,176 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TransactionStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StringDictionary categories = new StringDictionary();
+    private final StringDictionary subcategories = new StringDictionary();
+    private final StringHeap descriptions = new StringHeap();
+    private final List<Listener> listeners = new ArrayList<>();
+    private long[] epochSeconds = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private int[] subcategoryIds = new int[INITIAL_CAPACITY];
+    private int[] descriptionOffsets = new int[INITIAL_CAPACITY];
+    private int size;
+    private long version;
+
+    public interface Listener {
+        void rowsAppended(TransactionStore store, int from, int to);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public int append(LocalDateTime dateTime, String category, String subcategory, long amountMinor, String description) {
+        return append(dateTime.toEpochSecond(ZoneOffset.UTC), category, subcategory, amountMinor, description);
+    }
+
+    public int append(long epochSecond, String category, String subcategory, long amountMinor, String description) {
+        int row = appendRow(epochSecond, amountMinor, categories.idOf(category), subcategories.idOf(subcategory),
+                descriptions.add(description));
+        fireRowsAppended(row, row + 1);
+        return row;
+    }
+
+    public void appendAll(TransactionStore other) {
+        appendAll(other, 0);
+    }
+
+    public void appendAll(TransactionStore other, int fromRow) {
+        int count = other.size - fromRow;
+        if (count <= 0) {
+            return;
+        }
+        int[] categoryMapping = mapping(other.categories, categories);
+        int[] subcategoryMapping = mapping(other.subcategories, subcategories);
+
+        int from = size;
+        ensureCapacity(size + count);
+        System.arraycopy(other.epochSeconds, fromRow, epochSeconds, size, count);
+        System.arraycopy(other.amounts, fromRow, amounts, size, count);
+        for (int i = 0; i < count; i++) {
+            categoryIds[size + i] = categoryMapping[other.categoryIds[fromRow + i]];
+            subcategoryIds[size + i] = subcategoryMapping[other.subcategoryIds[fromRow + i]];
+            descriptionOffsets[size + i] = descriptions.copyFrom(other.descriptions,
+                    other.descriptionOffsets[fromRow + i]);
+        }
+        size += count;
+        version++;
+        fireRowsAppended(from, size);
+    }
+
+    private int appendRow(long epochSecond, long amountMinor, int categoryId, int subcategoryId, int descriptionOffset) {
+        ensureCapacity(size + 1);
+        epochSeconds[size] = epochSecond;
+        amounts[size] = amountMinor;
+        categoryIds[size] = categoryId;
+        subcategoryIds[size] = subcategoryId;
+        descriptionOffsets[size] = descriptionOffset;
+        version++;
+        return size++;
+    }
+
+    private static int[] mapping(StringDictionary source, StringDictionary target) {
+        int[] mapping = new int[source.size()];
+        for (int id = 0; id < mapping.length; id++) {
+            mapping[id] = target.idOf(source.valueOf(id));
+        }
+        return mapping;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= epochSeconds.length) {
+            return;
+        }
+        int capacity = Math.max(required, epochSeconds.length + (epochSeconds.length >> 1));
+        epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        subcategoryIds = Arrays.copyOf(subcategoryIds, capacity);
+        descriptionOffsets = Arrays.copyOf(descriptionOffsets, capacity);
+    }
+
+    private void fireRowsAppended(int from, int to) {
+        for (Listener listener : listeners) {
+            listener.rowsAppended(this, from, to);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long epochSecond(int row) {
+        return epochSeconds[row];
+    }
+
+    public LocalDateTime dateTime(int row) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[row], 0, ZoneOffset.UTC);
+    }
+
+    public LocalDate date(int row) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochSeconds[row], 86_400L));
+    }
+
+    public long amountMinor(int row) {
+        return amounts[row];
+    }
+
+    public int categoryId(int row) {
+        return categoryIds[row];
+    }
+
+    public int subcategoryId(int row) {
+        return subcategoryIds[row];
+    }
+
+    public String category(int row) {
+        return categories.valueOf(categoryIds[row]);
+    }
+
+    public String subcategory(int row) {
+        return subcategories.valueOf(subcategoryIds[row]);
+    }
+
+    public String description(int row) {
+        return descriptions.get(descriptionOffsets[row]);
+    }
+
+    public LedgerSnapshot snapshot() {
+        return new LedgerSnapshot(epochSeconds, amounts, categoryIds, subcategoryIds, descriptionOffsets,
+                descriptions.array(), values(categories), values(subcategories), size, version);
+    }
+
+    private static String[] values(StringDictionary dictionary) {
+        String[] values = new String[dictionary.size()];
+        for (int id = 0; id < values.length; id++) {
+            values[id] = dictionary.valueOf(id);
+        }
+        return values;
+    }
+
+    public StringDictionary getCategories() {
+        return categories;
+    }
+
+    public StringDictionary getSubcategories() {
+        return subcategories;
+    }
+}
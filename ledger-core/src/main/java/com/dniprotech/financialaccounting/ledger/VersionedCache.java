@@ -0,0 +1,50 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class VersionedCache<K, V> {
+    private final Map<K, Entry<V>> entries;
+
+    public VersionedCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public V get(K key, long version, Supplier<V> builder) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.version != version) {
+            entry = new Entry<>(builder.get(), version);
+            entries.put(key, entry);
+        }
+        return entry.value;
+    }
+
+    public boolean isCurrent(K key, long version) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && entry.version == version;
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long version;
+
+        private Entry(V value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
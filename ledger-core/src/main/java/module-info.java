@@ -0,0 +1,5 @@
+module com.dniprotech.financialaccounting.ledger {
+    requires jdk.jfr;
+
+    exports com.dniprotech.financialaccounting.ledger;
+}
@@ -0,0 +1,72 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AggregationCubeTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void balanceBeforeCountsBackDatedEntries() {
+        AggregationCube cube = new AggregationCube();
+        cube.add(START.plusDays(10), AggregationCube.INCOME, "Зарплата", 100_000);
+        cube.add(START.plusDays(20), AggregationCube.EXPENSE, "Оренда", 40_000);
+        cube.add(START.plusDays(5), AggregationCube.EXPENSE, "Кава", 5_000);
+        cube.add(START.plusDays(5), "Переказ", "Картка", 7_000);
+
+        assertEquals(0, cube.balanceBefore(START.plusDays(5)));
+        assertEquals(-5_000, cube.balanceBefore(START.plusDays(6)));
+        assertEquals(95_000, cube.balanceBefore(START.plusDays(11)));
+        assertEquals(55_000, cube.balanceBefore(START.plusDays(21)));
+        assertEquals(0, cube.balanceBefore(null));
+
+        cube.remove(START.plusDays(5), AggregationCube.EXPENSE, "Кава", 5_000);
+        assertEquals(100_000, cube.balanceBefore(START.plusDays(11)));
+
+        cube.clear();
+        assertEquals(0, cube.balanceBefore(START.plusDays(21)));
+    }
+
+    @Test
+    void balanceBeforeMatchesDailyBalanceSums() {
+        AggregationCube cube = new AggregationCube();
+        SplittableRandom random = new SplittableRandom(17);
+        for (int i = 0; i < 5_000; i++) {
+            LocalDate date = START.plusDays(random.nextInt(2_000));
+            String category = random.nextBoolean() ? AggregationCube.INCOME : AggregationCube.EXPENSE;
+            cube.add(date, category, "Інше", random.nextLong(1, 1_000_000));
+        }
+
+        for (int day = 0; day <= 2_001; day += 7) {
+            LocalDate date = START.plusDays(day);
+            long expected = cube.dailyBalance(null, date.minusDays(1)).values().stream().mapToLong(Long::longValue).sum();
+            assertEquals(expected, cube.balanceBefore(date), date.toString());
+        }
+    }
+
+    @Test
+    void rangeAmountsMatchSlices() {
+        AggregationCube cube = new AggregationCube();
+        SplittableRandom random = new SplittableRandom(10);
+        for (int i = 0; i < 3_000; i++) {
+            LocalDate date = START.plusDays(random.nextInt(1_000));
+            String category = random.nextBoolean() ? AggregationCube.INCOME : AggregationCube.EXPENSE;
+            cube.add(date, category, "Інше", random.nextLong(1, 1_000_000));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = START.plusDays(random.nextInt(-10, 1_010));
+            LocalDate to = from.plusDays(random.nextInt(-5, 300));
+            long income = cube.slice(from, to, AggregationCube.INCOME, null).getAmount();
+            long expense = cube.slice(from, to, AggregationCube.EXPENSE, null).getAmount();
+            assertEquals(income, cube.amount(AggregationCube.INCOME, from, to));
+            assertEquals(expense, cube.amount(AggregationCube.EXPENSE, from, to));
+            assertEquals(income - expense, cube.balance(from, to));
+        }
+        assertEquals(cube.total(AggregationCube.INCOME).getAmount(), cube.amount(AggregationCube.INCOME, null, null));
+    }
+}
@@ -0,0 +1,64 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class CategoryBitmapIndexTest {
+    private static final long DAY = 86_400L;
+
+    @Test
+    void filtersIntersectCategoriesWithSubcategories() {
+        CategoryBitmapIndex index = new CategoryBitmapIndex();
+        index.add(store().snapshot(), 0, 6, 100);
+
+        assertArrayEquals(new int[]{100, 102, 104}, index.category(AggregationCube.EXPENSE).toArray());
+        assertArrayEquals(new int[]{101, 105}, index.subcategory("Зарплата").toArray());
+        assertArrayEquals(new int[]{100, 104}, index.filter(List.of(AggregationCube.EXPENSE), List.of("Кава")).toArray());
+        assertArrayEquals(new int[]{100, 103, 104}, index.filter(List.of(AggregationCube.EXPENSE, "Переказ"),
+                List.of("Кава", "Картка")).toArray());
+        assertArrayEquals(new int[]{100, 101, 102, 104, 105},
+                index.filter(List.of(AggregationCube.EXPENSE, AggregationCube.INCOME), null).toArray());
+        assertArrayEquals(new int[0], index.filter(List.of(AggregationCube.INCOME), List.of("Кава")).toArray());
+        assertArrayEquals(new int[0], index.filter(List.of("Невідома"), List.of()).toArray());
+    }
+
+    @Test
+    void restoredBitmapsMergeWithTailRows() {
+        CategoryBitmapIndex index = new CategoryBitmapIndex();
+        index.addCategory(AggregationCube.EXPENSE, RowBitmap.of(new int[]{0, 3}));
+        index.addSubcategory("Кава", RowBitmap.of(new int[]{3}));
+        index.add(store().snapshot(), 0, 6, 4);
+
+        assertArrayEquals(new int[]{0, 3, 4, 6, 8}, index.category(AggregationCube.EXPENSE).toArray());
+        assertArrayEquals(new int[]{3, 4, 8}, index.filter(List.of(AggregationCube.EXPENSE), List.of("Кава")).toArray());
+    }
+
+    @Test
+    void categoryRowsIntersectTimeRange() {
+        LedgerIndex index = new LedgerIndex();
+        TransactionStore store = store();
+        index.append(store.snapshot(), 0, store.size());
+
+        LocalDate first = LocalDate.ofEpochDay(0);
+        assertArrayEquals(new int[]{0, 2, 4}, index.categoryRows(AggregationCube.EXPENSE, null, null));
+        assertArrayEquals(new int[]{2, 4}, index.categoryRows(AggregationCube.EXPENSE, first.plusDays(1), null));
+        assertArrayEquals(new int[]{4}, index.categoryRows(AggregationCube.EXPENSE, first.plusDays(1), first.plusDays(1)));
+        assertArrayEquals(new int[]{1, 5}, index.categoryRows(AggregationCube.INCOME, first, first.plusDays(2)));
+        assertArrayEquals(new int[0], index.categoryRows(AggregationCube.INCOME, first.plusDays(3), null));
+    }
+
+    private static TransactionStore store() {
+        TransactionStore store = new TransactionStore();
+        store.append(0, AggregationCube.EXPENSE, "Кава", 5_000, "Кава");
+        store.append(2 * DAY, AggregationCube.INCOME, "Зарплата", 100_000, "Зарплата");
+        store.append(3 * DAY, AggregationCube.EXPENSE, "Оренда", 40_000, "Оренда");
+        store.append(DAY, "Переказ", "Картка", 7_000, "Переказ");
+        store.append(DAY + 60, AggregationCube.EXPENSE, "Кава", 6_000, "Кава");
+        store.append(DAY - 1, AggregationCube.INCOME, "Зарплата", 90_000, "Аванс");
+        return store;
+    }
+}
@@ -0,0 +1,77 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LedgerBinaryConverterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void spilledConversionMatchesSinglePass() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        writeLedger(text, 500);
+        Path single = directory.resolve("single.bin");
+        Path spilled = directory.resolve("spilled.bin");
+
+        assertEquals(500, LedgerBinaryConverter.convert(text, single));
+        assertEquals(500, LedgerBinaryConverter.convert(text, spilled, 37));
+
+        assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(spilled));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("ledger.txt", "single.bin", "spilled.bin"),
+                    files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void spilledConversionKeepsIndexesAcrossChunks() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        TransactionStore store = writeLedger(text, 300);
+        Path binary = directory.resolve("ledger.bin");
+        LedgerBinaryConverter.convert(text, binary, 64);
+
+        LedgerIndex expected = new LedgerIndex();
+        expected.append(store.snapshot(), 0, store.size());
+        try (LedgerBinaryFile file = LedgerBinaryFile.open(binary)) {
+            assertEquals(Files.size(text), file.getSourceLength());
+            LedgerIndex index = new LedgerIndex();
+            index.attach(file);
+            assertArrayEquals(expected.search("оренда", null), index.search("оренда", null));
+            LocalDate from = LocalDate.of(2023, 2, 1);
+            LocalDate to = LocalDate.of(2023, 5, 1);
+            assertArrayEquals(expected.categoryRows(AggregationCube.EXPENSE, from, to),
+                    index.categoryRows(AggregationCube.EXPENSE, from, to));
+            assertEquals(expected.getAggregates().total().getCount(), index.getAggregates().total().getCount());
+            assertEquals(expected.getAggregates().total().getAmount(), index.getAggregates().total().getAmount());
+        }
+    }
+
+    private static TransactionStore writeLedger(Path text, int rows) throws IOException {
+        TransactionStore store = new TransactionStore();
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime dateTime = LocalDateTime.of(2023, 1, 1, 9, 0).plusHours((i * 37L) % 4000);
+            String category = i % 4 == 0 ? AggregationCube.INCOME : AggregationCube.EXPENSE;
+            String subcategory = i % 4 == 0 ? "Зарплата" : i < 150 ? "Їжа" : "Житло";
+            String description = i % 3 == 0 ? "Оренда " + i : "Покупка " + i % 11;
+            store.append(dateTime, category, subcategory, 500L + i, description);
+            lines.append(TransactionRecord.format(dateTime, category, subcategory, 500L + i, description)).append('\n');
+        }
+        Files.writeString(text, lines, StandardCharsets.UTF_8);
+        return store;
+    }
+}
@@ -0,0 +1,210 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerCheckpointTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void acceptsCheckpointCoveringWholeJournal() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        TransactionStore store = writeLedger(text, 0, 50);
+        long length = Files.size(text);
+
+        LedgerCheckpointer.write(null, store.snapshot(), text, length);
+
+        Path binary = LedgerBinaryFile.binaryPathFor(text);
+        assertTrue(LedgerBinaryFile.covers(binary, text, length));
+        try (LedgerBinaryFile file = LedgerBinaryFile.open(binary)) {
+            assertEquals(50, file.getRowCount());
+            assertEquals(length, file.getSourceLength());
+            for (int row = 0; row < store.size(); row++) {
+                assertEquals(store.epochSecond(row), file.epochSecond(row));
+                assertEquals(store.category(row), file.category(row));
+                assertEquals(store.subcategory(row), file.subcategory(row));
+                assertEquals(store.amountMinor(row), file.amountMinor(row));
+                assertEquals(store.description(row), file.description(row));
+            }
+        }
+    }
+
+    @Test
+    void acceptsCheckpointFollowedByAppendedTail() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        TransactionStore store = writeLedger(text, 0, 20);
+        long checkpointLength = Files.size(text);
+        LedgerCheckpointer.write(null, store.snapshot(), text, checkpointLength);
+
+        writeLedger(text, 20, 30);
+
+        long covered = LedgerBinaryFile.coveredLength(LedgerBinaryFile.binaryPathFor(text), text, Files.size(text));
+        assertEquals(checkpointLength, covered);
+    }
+
+    @Test
+    void rejectsCheckpointAfterPrefixIsRewritten() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        TransactionStore store = writeLedger(text, 0, 20);
+        long length = Files.size(text);
+        LedgerCheckpointer.write(null, store.snapshot(), text, length);
+
+        byte[] bytes = Files.readAllBytes(text);
+        bytes[bytes.length - 2] = (byte) (bytes[bytes.length - 2] == 'x' ? 'y' : 'x');
+        Files.write(text, bytes);
+
+        assertEquals(-1, LedgerBinaryFile.coveredLength(LedgerBinaryFile.binaryPathFor(text), text, length));
+    }
+
+    @Test
+    void rejectsCheckpointLongerThanJournal() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        TransactionStore store = writeLedger(text, 0, 20);
+        long length = Files.size(text);
+        LedgerCheckpointer.write(null, store.snapshot(), text, length);
+
+        assertEquals(-1, LedgerBinaryFile.coveredLength(LedgerBinaryFile.binaryPathFor(text), text, length - 1));
+    }
+
+    @Test
+    void rejectsFileWithoutCheckpointHeader() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        writeLedger(text, 0, 5);
+        Path binary = LedgerBinaryFile.binaryPathFor(text);
+        Files.write(binary, new byte[LedgerBinaryFile.HEADER_SIZE]);
+
+        assertEquals(-1, LedgerBinaryFile.coveredLength(binary, text, Files.size(text)));
+    }
+
+    @Test
+    void restoresIndexesFromCheckpointAndTail() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        TransactionStore base = writeLedger(text, 0, 40);
+        LedgerCheckpointer.write(null, base.snapshot(), text, Files.size(text));
+        TransactionStore tail = new TransactionStore();
+        TransactionStore all = new TransactionStore();
+        all.appendAll(base);
+        for (int i = 40; i < 60; i++) {
+            append(tail, i);
+            append(all, i);
+        }
+
+        LedgerIndex expected = new LedgerIndex();
+        expected.append(all.snapshot(), 0, all.size());
+        try (LedgerBinaryFile file = LedgerBinaryFile.open(LedgerBinaryFile.binaryPathFor(text))) {
+            LedgerIndex index = new LedgerIndex();
+            index.attach(file);
+            index.append(tail.snapshot(), 0, tail.size());
+
+            assertEquals(all.size(), index.size());
+            assertArrayEquals(expected.search("кав", null), index.search("кав", null));
+            assertArrayEquals(expected.search("таксі", AggregationCube.EXPENSE),
+                    index.search("таксі", AggregationCube.EXPENSE));
+            LocalDate from = LocalDate.of(2023, 1, 10);
+            LocalDate to = LocalDate.of(2023, 2, 10);
+            assertArrayEquals(expected.categoryRows(AggregationCube.INCOME, from, to),
+                    index.categoryRows(AggregationCube.INCOME, from, to));
+            assertEquals(expected.getAggregates().slice(from, to, AggregationCube.EXPENSE, null).getAmount(),
+                    index.getAggregates().slice(from, to, AggregationCube.EXPENSE, null).getAmount());
+        }
+    }
+
+    @Test
+    void mergesTailIntoNextGenerationWithoutTouchingBase() throws IOException {
+        Path text = directory.resolve("ledger.txt");
+        TransactionStore base = writeLedger(text, 0, 40);
+        Path basePath = LedgerCheckpointer.write(null, base.snapshot(), text, Files.size(text));
+        TransactionStore tail = writeLedger(text, 40, 75);
+        TransactionStore all = new TransactionStore();
+        all.appendAll(base);
+        all.appendAll(tail);
+        LedgerIndex expected = new LedgerIndex();
+        expected.append(all.snapshot(), 0, all.size());
+
+        Path merged;
+        try (LedgerBinaryFile baseFile = LedgerBinaryFile.open(basePath)) {
+            merged = LedgerCheckpointer.write(baseFile, tail.snapshot(), text, Files.size(text));
+            assertEquals(40, baseFile.getRowCount());
+        }
+
+        assertEquals(LedgerBinaryFile.generationPath(text, 1), merged);
+        assertEquals(merged, LedgerBinaryFile.latestCheckpoint(text, Files.size(text)));
+        try (LedgerBinaryFile file = LedgerBinaryFile.open(merged)) {
+            assertEquals(all.size(), file.getRowCount());
+            assertEquals(Files.size(text), file.getSourceLength());
+            for (int row = 0; row < all.size(); row++) {
+                assertEquals(all.epochSecond(row), file.epochSecond(row));
+                assertEquals(all.category(row), file.category(row));
+                assertEquals(all.subcategory(row), file.subcategory(row));
+                assertEquals(all.amountMinor(row), file.amountMinor(row));
+                assertEquals(all.description(row), file.description(row));
+            }
+            LedgerIndex index = new LedgerIndex();
+            index.attach(file);
+            assertArrayEquals(expected.search("кав", null), index.search("кав", null));
+            assertArrayEquals(expected.search("таксі 6", AggregationCube.EXPENSE),
+                    index.search("таксі 6", AggregationCube.EXPENSE));
+            LocalDate from = LocalDate.of(2023, 1, 20);
+            LocalDate to = LocalDate.of(2023, 3, 20);
+            assertArrayEquals(expected.categoryRows(AggregationCube.INCOME, from, to),
+                    index.categoryRows(AggregationCube.INCOME, from, to));
+            assertEquals(expected.getAggregates().total().getAmount(), index.getAggregates().total().getAmount());
+        }
+
+        assertEquals(List.of(), LedgerBinaryFile.deleteGenerationsExcept(text, merged));
+        assertEquals(List.of(merged), LedgerBinaryFile.generations(text));
+    }
+
+    private static TransactionStore writeLedger(Path text, int from, int to) throws IOException {
+        TransactionStore store = new TransactionStore();
+        StringBuilder lines = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            append(store, i);
+            lines.append(line(i)).append('\n');
+        }
+        Files.writeString(text, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return store;
+    }
+
+    private static void append(TransactionStore store, int i) {
+        store.append(dateTime(i), category(i), subcategory(i), amount(i), description(i));
+    }
+
+    private static String line(int i) {
+        return TransactionRecord.format(dateTime(i), category(i), subcategory(i), amount(i), description(i));
+    }
+
+    private static LocalDateTime dateTime(int i) {
+        return LocalDateTime.of(2023, 1, 1, 8, 0).plusHours(i * 31L);
+    }
+
+    private static String category(int i) {
+        return i % 3 == 0 ? AggregationCube.INCOME : AggregationCube.EXPENSE;
+    }
+
+    private static String subcategory(int i) {
+        return i % 3 == 0 ? "Подарунок" : "Їжа";
+    }
+
+    private static long amount(int i) {
+        return 100L + i * 17L;
+    }
+
+    private static String description(int i) {
+        return i % 2 == 0 ? "Кава " + i : "Таксі " + i;
+    }
+}
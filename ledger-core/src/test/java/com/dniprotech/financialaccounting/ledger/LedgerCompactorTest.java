@@ -0,0 +1,123 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class LedgerCompactorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void removesDuplicateRecordsKeepingFirstOccurrence() throws IOException {
+        Path ledger = directory.resolve("ledger.txt");
+        Files.write(ledger, List.of(record(1, "Кава"), record(2, "Таксі"), record(1, "Кава"), "",
+                record(3, "Оренда"), record(2, "Таксі")), StandardCharsets.UTF_8);
+        long before = Files.size(ledger);
+
+        LedgerCompactor.Stats stats = LedgerCompactor.compact(ledger);
+
+        assertEquals(List.of(record(1, "Кава"), record(2, "Таксі"), record(3, "Оренда")),
+                Files.readAllLines(ledger, StandardCharsets.UTF_8));
+        assertEquals(5, stats.getRowsRead());
+        assertEquals(3, stats.getRowsWritten());
+        assertEquals(2, stats.getDuplicateRows());
+        assertEquals(before, stats.getBytesBefore());
+        assertEquals(Files.size(ledger), stats.getBytesAfter());
+        assertFalse(Files.exists(directory.resolve("ledger.txt.compact")));
+    }
+
+    @Test
+    void treatsEquivalentAmountsAndLineEndingsAsDuplicates() throws IOException {
+        Path ledger = directory.resolve("ledger.txt");
+        String canonical = record(1, "Кава");
+        String shortAmount = canonical.replace("Сума: 1.00", "Сума: 1");
+        Files.writeString(ledger, canonical + "\r\n" + shortAmount + "\n" + canonical, StandardCharsets.UTF_8);
+
+        LedgerCompactor.Stats stats = LedgerCompactor.compact(ledger);
+
+        assertEquals(2, stats.getDuplicateRows());
+        assertEquals(canonical + "\n", Files.readString(ledger, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void keepsDistinctMalformedLines() throws IOException {
+        Path ledger = directory.resolve("ledger.txt");
+        Files.write(ledger, List.of("зламаний рядок", record(1, "Кава"), "  зламаний рядок  ", "інший рядок"),
+                StandardCharsets.UTF_8);
+
+        LedgerCompactor.Stats stats = LedgerCompactor.compact(ledger);
+
+        assertEquals(3, stats.getMalformedRows());
+        assertEquals(1, stats.getDuplicateRows());
+        assertEquals(List.of("зламаний рядок", record(1, "Кава"), "інший рядок"),
+                Files.readAllLines(ledger, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handlesManyDistinctRecords() throws IOException {
+        Path ledger = directory.resolve("ledger.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            lines.add(record(i, "Запис " + i));
+        }
+        List<String> withDuplicates = new ArrayList<>(lines);
+        withDuplicates.addAll(lines.subList(0, 500));
+        Files.write(ledger, withDuplicates, StandardCharsets.UTF_8);
+
+        LedgerCompactor.Stats stats = LedgerCompactor.compact(ledger);
+
+        assertEquals(500, stats.getDuplicateRows());
+        assertEquals(lines, Files.readAllLines(ledger, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void leavesSourceUntouchedWhenNotCommitted() throws IOException {
+        Path ledger = directory.resolve("ledger.txt");
+        Files.write(ledger, List.of(record(1, "Кава"), record(1, "Кава")), StandardCharsets.UTF_8);
+        byte[] original = Files.readAllBytes(ledger);
+
+        try (LedgerCompactor compactor = new LedgerCompactor(ledger)) {
+            compactor.copyDistinct(0, Files.size(ledger));
+        }
+
+        assertEquals(new String(original, StandardCharsets.UTF_8), Files.readString(ledger, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(directory.resolve("ledger.txt.compact")));
+    }
+
+    @Test
+    void copiesRangesIncrementally() throws IOException {
+        Path ledger = directory.resolve("ledger.txt");
+        Files.write(ledger, List.of(record(1, "Кава"), record(2, "Таксі")), StandardCharsets.UTF_8);
+        long covered = Files.size(ledger);
+        Files.write(ledger, List.of(record(2, "Таксі"), record(3, "Оренда")), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        LedgerCompactor.Stats stats;
+        try (LedgerCompactor compactor = new LedgerCompactor(ledger)) {
+            compactor.copyDistinct(0, covered);
+            compactor.copyDistinct(covered, Files.size(ledger));
+            stats = compactor.commit();
+        }
+
+        assertEquals(1, stats.getDuplicateRows());
+        assertEquals(List.of(record(1, "Кава"), record(2, "Таксі"), record(3, "Оренда")),
+                Files.readAllLines(ledger, StandardCharsets.UTF_8));
+    }
+
+    private static String record(int index, String description) {
+        return TransactionRecord.format(LocalDateTime.of(2023, 1, 1, 0, 0).plusMinutes(index), AggregationCube.EXPENSE,
+                "Їжа", 100, description);
+    }
+}
@@ -0,0 +1,82 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+    @Test
+    void fastPathMatchesBigDecimal() {
+        SplittableRandom random = new SplittableRandom(8);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder text = new StringBuilder();
+            if (random.nextInt(4) == 0) {
+                text.append('-');
+            }
+            text.append(random.nextLong(0, 1_000_000_000_000L));
+            int fractionDigits = random.nextInt(6);
+            if (fractionDigits > 0) {
+                text.append('.');
+                for (int digit = 0; digit < fractionDigits; digit++) {
+                    text.append(random.nextInt(10));
+                }
+            }
+            assertEquals(reference(text.toString()), Money.parse(text.toString()), text.toString());
+        }
+    }
+
+    @Test
+    void roundsHalfUpAwayFromZero() {
+        assertEquals(101, Money.parse("1.005"));
+        assertEquals(100, Money.parse("1.0049"));
+        assertEquals(-101, Money.parse("-1.005"));
+        assertEquals(-100, Money.parse("-1.0049"));
+        assertEquals(100, Money.parse("0.995"));
+        assertEquals(1, Money.parse(".005"));
+        assertEquals(reference("123456789012345.675"), Money.parse("123456789012345.675"));
+    }
+
+    @Test
+    void acceptsCommaDecimalsAndGroupedThousands() {
+        assertEquals(1_250, Money.parse("12,5"));
+        assertEquals(123_456_700, Money.parse("1,234,567"));
+        assertEquals(123_456_789, Money.parse("1.234.567,89"));
+        assertEquals(123_456_789, Money.parse("1,234,567.89"));
+        assertEquals(150, Money.parse(" +1.5 "));
+    }
+
+    @Test
+    void fallsBackToBigDecimalForLongAmounts() {
+        String text = "12345678901234567.89";
+        assertEquals(reference(text), Money.parse(text));
+        assertEquals(Money.INVALID, Money.parse("99999999999999999999", 0, 20));
+    }
+
+    @Test
+    void rejectsMalformedAmounts() {
+        assertEquals(Money.INVALID, Money.parse("", 0, 0));
+        assertEquals(Money.INVALID, Money.parse("-", 0, 1));
+        assertEquals(Money.INVALID, Money.parse("1,23,4", 0, 6));
+        assertEquals(Money.INVALID, Money.parse("1.2.3,4,5", 0, 9));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12abc"));
+    }
+
+    @Test
+    void formatsMinorUnits() {
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-12.30", Money.format(-1_230));
+        assertEquals("1234,56", Money.format(123_456, new StringBuilder(), ',').toString());
+        for (long amount : new long[]{0, 1, -1, 99, 100, 123_456_789, Long.MAX_VALUE}) {
+            assertEquals(amount, Money.parse(Money.format(amount)));
+        }
+    }
+
+    private static long reference(String text) {
+        return new BigDecimal(text).movePointRight(Money.SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
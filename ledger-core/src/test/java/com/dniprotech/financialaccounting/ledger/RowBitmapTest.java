@@ -0,0 +1,93 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowBitmapTest {
+    @Test
+    void andAndOrMatchSetOperationsAcrossContainerKinds() {
+        SplittableRandom random = new SplittableRandom(16);
+        for (int density : new int[]{50, 3_000, 20_000, 60_000}) {
+            TreeSet<Integer> left = randomRows(random, density);
+            TreeSet<Integer> right = randomRows(random, density / 2 + 1);
+            RowBitmap leftBitmap = bitmap(left);
+            RowBitmap rightBitmap = bitmap(right);
+
+            TreeSet<Integer> intersection = new TreeSet<>(left);
+            intersection.retainAll(right);
+            TreeSet<Integer> union = new TreeSet<>(left);
+            union.addAll(right);
+
+            assertArrayEquals(toArray(intersection), leftBitmap.and(rightBitmap).toArray(), "and " + density);
+            assertArrayEquals(toArray(intersection), rightBitmap.and(leftBitmap).toArray(), "and " + density);
+            assertArrayEquals(toArray(union), leftBitmap.or(rightBitmap).toArray(), "or " + density);
+            assertEquals(union.size(), leftBitmap.or(rightBitmap).cardinality());
+        }
+    }
+
+    @Test
+    void operationsLeaveOperandsUntouched() {
+        RowBitmap left = RowBitmap.of(new int[]{1, 2, 70_000});
+        RowBitmap right = RowBitmap.of(new int[]{2, 3, 70_000, 140_000});
+
+        RowBitmap union = left.or(right);
+        union.add(5);
+
+        assertArrayEquals(new int[]{2, 70_000}, left.and(right).toArray());
+        assertArrayEquals(new int[]{1, 2, 70_000}, left.toArray());
+        assertArrayEquals(new int[]{2, 3, 70_000, 140_000}, right.toArray());
+        assertFalse(left.contains(5));
+        assertTrue(union.contains(5));
+    }
+
+    @Test
+    void disjointContainersIntersectToEmpty() {
+        RowBitmap low = RowBitmap.of(new int[]{0, 1, 65_535});
+        RowBitmap high = RowBitmap.of(new int[]{65_536, 131_071});
+
+        assertTrue(low.and(high).isEmpty());
+        assertTrue(low.and(new RowBitmap()).isEmpty());
+        assertArrayEquals(low.toArray(), low.or(new RowBitmap()).toArray());
+    }
+
+    @Test
+    void serializedBitmapsReadBack() {
+        TreeSet<Integer> rows = randomRows(new SplittableRandom(17), 10_000);
+        rows.add(0);
+        rows.add(Integer.MAX_VALUE);
+        RowBitmap bitmap = bitmap(rows);
+        ByteBuffer buffer = ByteBuffer.allocate(bitmap.serializedSize() + 4).order(ByteOrder.LITTLE_ENDIAN);
+
+        bitmap.write(buffer);
+        buffer.putInt(42);
+        buffer.flip();
+
+        assertArrayEquals(toArray(rows), RowBitmap.read(buffer).toArray());
+        assertEquals(42, buffer.getInt());
+    }
+
+    private static TreeSet<Integer> randomRows(SplittableRandom random, int count) {
+        TreeSet<Integer> rows = new TreeSet<>();
+        while (rows.size() < count) {
+            rows.add(random.nextInt(200_000));
+        }
+        return rows;
+    }
+
+    private static RowBitmap bitmap(TreeSet<Integer> rows) {
+        return RowBitmap.of(toArray(rows));
+    }
+
+    private static int[] toArray(TreeSet<Integer> rows) {
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
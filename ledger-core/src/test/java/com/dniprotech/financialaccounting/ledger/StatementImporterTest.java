@@ -0,0 +1,186 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatementImporterTest {
+    @TempDir
+    Path directory;
+
+    private final List<TransactionRecord> imported = new ArrayList<>();
+    private final List<Long> rejectedLines = new ArrayList<>();
+
+    @Test
+    void parsesGroupedAndDecimalAmounts() {
+        assertEquals(123400, StatementImporter.parseAmount("1,234"));
+        assertEquals(123450, StatementImporter.parseAmount("1,234.50"));
+        assertEquals(123450, StatementImporter.parseAmount("1.234,50"));
+        assertEquals(-123456, StatementImporter.parseAmount("−1 234,56"));
+        assertEquals(123456700, StatementImporter.parseAmount("1'234'567"));
+        assertEquals(1250, StatementImporter.parseAmount("12,5"));
+        assertEquals(1235, StatementImporter.parseAmount("12.345"));
+        assertEquals(Money.INVALID, StatementImporter.parseAmount("1,23,4"));
+        assertEquals(Money.INVALID, StatementImporter.parseAmount("1,234.5.6"));
+        assertEquals(Money.INVALID, StatementImporter.parseAmount("abc"));
+    }
+
+    @Test
+    void importsCsvAmountsWithThousandsSeparators() throws IOException {
+        Path statement = write("statement.csv",
+                "Дата,Час,Сума,Опис",
+                "01.02.2023,09:15,\"-1,234.50\",Оренда",
+                "02.02.2023,10:00,\"1,234\",Зарплата",
+                "2023-02-03,,-12.5,Кава");
+
+        StatementImporter.Summary summary = importFile(statement, new ImportRules());
+
+        assertEquals(3, summary.getImported());
+        assertEquals(0, summary.getRejected());
+        assertRecord(imported.get(0), LocalDate.of(2023, 2, 1), LocalTime.of(9, 15), 123450,
+                AggregationCube.EXPENSE, "Інші витрати", "Оренда");
+        assertRecord(imported.get(1), LocalDate.of(2023, 2, 2), LocalTime.of(10, 0), 123400,
+                AggregationCube.INCOME, "Інші надходження", "Зарплата");
+        assertRecord(imported.get(2), LocalDate.of(2023, 2, 3), LocalTime.MIDNIGHT, 1250,
+                AggregationCube.EXPENSE, "Інші витрати", "Кава");
+    }
+
+    @Test
+    void importsSemicolonCsvWithDecimalComma() throws IOException {
+        Path statement = write("statement.csv",
+                "Дата операції;Сума;Призначення платежу",
+                "05.03.2023 18:30;-1 234,56;Сільпо",
+                "06.03.2023;2.500,00;Повернення");
+
+        importFile(statement, new ImportRules());
+
+        assertEquals(2, imported.size());
+        assertRecord(imported.get(0), LocalDate.of(2023, 3, 5), LocalTime.of(18, 30), 123456,
+                AggregationCube.EXPENSE, "Інші витрати", "Сільпо");
+        assertEquals(250000, imported.get(1).getAmount());
+    }
+
+    @Test
+    void importsOfxTransactions() throws IOException {
+        Path statement = write("statement.ofx",
+                "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>",
+                "<STMTTRN>",
+                "<DTPOSTED>20230105123000",
+                "<TRNAMT>-1,234.56",
+                "<NAME>ATB &amp; Co",
+                "<MEMO>Продукти",
+                "</STMTTRN>",
+                "<STMTTRN><DTPOSTED>20230106<TRNAMT>2500.00<NAME>Salary</STMTTRN>",
+                "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>");
+
+        importFile(statement, new ImportRules());
+
+        assertEquals(2, imported.size());
+        assertRecord(imported.get(0), LocalDate.of(2023, 1, 5), LocalTime.of(12, 30), 123456,
+                AggregationCube.EXPENSE, "Інші витрати", "ATB & Co Продукти");
+        assertRecord(imported.get(1), LocalDate.of(2023, 1, 6), LocalTime.MIDNIGHT, 250000,
+                AggregationCube.INCOME, "Інші надходження", "Salary");
+    }
+
+    @Test
+    void classifiesWithRulesAndCustomColumns() throws IOException {
+        Path rulesFile = write("rules.txt",
+                "# правила",
+                "column.amount = Debit",
+                "атб|сільпо => " + AggregationCube.EXPENSE + " / Їжа",
+                "зарплата => " + AggregationCube.INCOME + " / Заробітна плата",
+                "default.expense = " + AggregationCube.EXPENSE + " / Розваги");
+        Path statement = write("statement.csv",
+                "Date,Debit,Details",
+                "01.04.2023,-100,АТБ Маркет",
+                "02.04.2023,5000,Зарплата за березень",
+                "03.04.2023,-40,Кіно");
+
+        importFile(statement, ImportRules.load(rulesFile));
+
+        assertEquals(3, imported.size());
+        assertEquals("Їжа", imported.get(0).getSubcategory());
+        assertEquals("Заробітна плата", imported.get(1).getSubcategory());
+        assertEquals(AggregationCube.INCOME, imported.get(1).getCategory());
+        assertEquals("Розваги", imported.get(2).getSubcategory());
+    }
+
+    @Test
+    void rejectsRulesWithUnknownCategory() throws IOException {
+        Path rulesFile = write("rules.txt", "кава => " + AggregationCube.EXPENSE + " / Кава");
+
+        assertThrows(IOException.class, () -> ImportRules.load(rulesFile));
+    }
+
+    @Test
+    void reportsMalformedRowsAndImportsTheRest() throws IOException {
+        Path statement = write("statement.csv",
+                "Дата,Сума,Опис",
+                "01.05.2023,-10,Кава",
+                "31.02.2023,-10,Неіснуюча дата",
+                "02.05.2023,0,Нульова сума",
+                "03.05.2023,\"1,23,4\",Зламана сума",
+                "04.05.2023",
+                "",
+                "05.05.2023,20,Подарунок");
+
+        StatementImporter.Summary summary = importFile(statement, new ImportRules());
+
+        assertEquals(2, summary.getImported());
+        assertEquals(4, summary.getRejected());
+        assertEquals(List.of(3L, 4L, 5L, 6L), rejectedLines);
+    }
+
+    @Test
+    void reportsUnterminatedOfxBlock() throws IOException {
+        Path statement = write("statement.ofx",
+                "<STMTTRN><DTPOSTED>20230105<TRNAMT>-5.00<NAME>Кава</STMTTRN>",
+                "<STMTTRN><DTPOSTED>20230106<TRNAMT>-abc<NAME>Таксі</STMTTRN>",
+                "<STMTTRN><DTPOSTED>20230107<TRNAMT>-7.00");
+
+        StatementImporter.Summary summary = importFile(statement, new ImportRules());
+
+        assertEquals(1, summary.getImported());
+        assertEquals(2, summary.getRejected());
+    }
+
+    @Test
+    void rejectsCsvWithoutDateAndAmountColumns() throws IOException {
+        Path statement = write("statement.csv", "Назва,Коментар", "a,b");
+
+        assertThrows(IOException.class, () -> importFile(statement, new ImportRules()));
+    }
+
+    private StatementImporter.Summary importFile(Path statement, ImportRules rules) throws IOException {
+        StatementImporter importer = new StatementImporter(rules);
+        return importer.importFile(statement, imported::addAll,
+                (lineNumber, line, reason) -> rejectedLines.add(lineNumber), null);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path path = directory.resolve(name);
+        Files.write(path, List.of(lines), StandardCharsets.UTF_8);
+        return path;
+    }
+
+    private static void assertRecord(TransactionRecord record, LocalDate date, LocalTime time, long amount,
+                                     String category, String subcategory, String description) {
+        assertEquals(date, record.getDate());
+        assertEquals(time, record.getTime());
+        assertEquals(amount, record.getAmount());
+        assertEquals(category, record.getCategory());
+        assertEquals(subcategory, record.getSubcategory());
+        assertEquals(description, record.getDescription());
+    }
+}
@@ -0,0 +1,65 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeIndexTest {
+    @Test
+    void backDatedRowsAreReturnedInTimeOrder() {
+        TransactionStore store = new TransactionStore();
+        store.append(100, AggregationCube.EXPENSE, "Кава", 1, "");
+        store.append(300, AggregationCube.EXPENSE, "Кава", 1, "");
+        TimeIndex index = new TimeIndex();
+        index.add(store.snapshot(), 0, 2, 10);
+
+        store.append(200, AggregationCube.EXPENSE, "Кава", 1, "");
+        store.append(50, AggregationCube.EXPENSE, "Кава", 1, "");
+        store.append(300, AggregationCube.EXPENSE, "Кава", 1, "");
+        index.add(store.snapshot(), 2, 5, 10);
+
+        assertEquals(5, index.size());
+        assertArrayEquals(new int[]{13, 10, 12, 11, 14}, index.rows(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertArrayEquals(new int[]{10, 12}, index.rows(100, 300));
+        assertArrayEquals(new int[]{11, 14}, index.rows(300, 301));
+        assertArrayEquals(new int[0], index.rows(301, 1_000));
+        assertArrayEquals(new int[0], index.rows(300, 100));
+    }
+
+    @Test
+    void randomBatchesMatchStableSort() {
+        SplittableRandom random = new SplittableRandom(15);
+        TransactionStore store = new TransactionStore();
+        TimeIndex index = new TimeIndex();
+        List<long[]> expected = new ArrayList<>();
+        while (store.size() < 20_000) {
+            int from = store.size();
+            int count = random.nextInt(1, 500);
+            for (int i = 0; i < count; i++) {
+                long second = random.nextLong(0, 5_000);
+                store.append(second, AggregationCube.INCOME, "Інше", 1, "");
+                expected.add(new long[]{second, from + i});
+            }
+            index.add(store.snapshot(), from, from + count, 0);
+        }
+        expected.sort(Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]));
+
+        assertArrayEquals(rows(expected, Long.MIN_VALUE, Long.MAX_VALUE), index.rows(Long.MIN_VALUE, Long.MAX_VALUE));
+        for (int i = 0; i < 100; i++) {
+            long from = random.nextLong(-10, 5_010);
+            long to = from + random.nextLong(0, 1_000);
+            assertArrayEquals(rows(expected, from, to), index.rows(from, to));
+        }
+    }
+
+    private static int[] rows(List<long[]> entries, long fromSecond, long toSecond) {
+        return entries.stream().filter(entry -> entry[0] >= fromSecond && entry[0] < toSecond)
+                .mapToInt(entry -> (int) entry[1]).toArray();
+    }
+}
@@ -0,0 +1,123 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsRecordsPendingUntilFlush() throws IOException {
+        Path path = directory.resolve("journal.txt");
+        try (TransactionJournal journal = new TransactionJournal(path, FsyncPolicy.everyRecords(100))) {
+            journal.append(record(1, "Кава"));
+            journal.append(record(2, "Таксі"));
+
+            assertEquals(2, journal.getPendingRecords());
+            assertEquals(0, journal.getCommittedOffset());
+            assertEquals(0, Files.size(path));
+
+            journal.flush();
+
+            assertEquals(0, journal.getPendingRecords());
+            assertEquals(Files.size(path), journal.getCommittedOffset());
+            assertEquals(List.of(record(1, "Кава"), record(2, "Таксі")), Files.readAllLines(path, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void flushesWhenRecordCountIsReached() throws IOException {
+        Path path = directory.resolve("journal.txt");
+        try (TransactionJournal journal = new TransactionJournal(path, FsyncPolicy.everyRecords(2))) {
+            journal.append(record(1, "Кава"));
+            assertEquals(1, journal.getPendingRecords());
+
+            journal.append(record(2, "Таксі"));
+
+            assertEquals(0, journal.getPendingRecords());
+            assertEquals(2, Files.readAllLines(path, StandardCharsets.UTF_8).size());
+        }
+    }
+
+    @Test
+    void resumesAtExistingLength() throws IOException {
+        Path path = directory.resolve("journal.txt");
+        try (TransactionJournal journal = new TransactionJournal(path, FsyncPolicy.perRecord())) {
+            journal.append(record(1, "Кава"));
+        }
+        long length = Files.size(path);
+
+        try (TransactionJournal journal = new TransactionJournal(path, FsyncPolicy.perRecord())) {
+            assertEquals(length, journal.getCommittedOffset());
+            journal.append(record(2, "Таксі"));
+        }
+
+        assertEquals(List.of(record(1, "Кава"), record(2, "Таксі")), Files.readAllLines(path, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void separatesAppendFromTornLastLine() throws IOException {
+        Path path = directory.resolve("journal.txt");
+        String torn = record(2, "Таксі").substring(0, 30);
+        Files.writeString(path, record(1, "Кава") + "\n" + torn, StandardCharsets.UTF_8);
+
+        try (TransactionJournal journal = new TransactionJournal(path, FsyncPolicy.perRecord())) {
+            journal.append(record(3, "Оренда"));
+        }
+
+        assertEquals(List.of(record(1, "Кава"), torn, record(3, "Оренда")),
+                Files.readAllLines(path, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void leavesTornLineUntouchedWithoutAppends() throws IOException {
+        Path path = directory.resolve("journal.txt");
+        String content = record(1, "Кава") + "\n" + record(2, "Таксі").substring(0, 30);
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+
+        new TransactionJournal(path, FsyncPolicy.perRecord()).close();
+
+        assertEquals(content, Files.readString(path, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void compactRemovesDuplicatesAndKeepsAppending() throws IOException {
+        Path path = directory.resolve("journal.txt");
+        try (TransactionJournal journal = new TransactionJournal(path, FsyncPolicy.everyRecords(100))) {
+            journal.append(record(1, "Кава"));
+            journal.append(record(2, "Таксі"));
+            journal.append(record(1, "Кава"));
+            journal.flush();
+            journal.append(record(2, "Таксі"));
+
+            LedgerCompactor.Stats stats = journal.compact();
+
+            assertEquals(4, stats.getRowsRead());
+            assertEquals(2, stats.getRowsWritten());
+            assertEquals(2, stats.getDuplicateRows());
+            assertEquals(0, journal.getPendingRecords());
+            assertEquals(Files.size(path), journal.getCommittedOffset());
+
+            journal.append(record(3, "Оренда"));
+            journal.flush();
+        }
+
+        assertEquals(List.of(record(1, "Кава"), record(2, "Таксі"), record(3, "Оренда")),
+                Files.readAllLines(path, StandardCharsets.UTF_8));
+    }
+
+    private static String record(int day, String description) {
+        return TransactionRecord.format(LocalDateTime.of(2023, 5, day, 12, 0), AggregationCube.EXPENSE, "Їжа",
+                day * 100L, description);
+    }
+}
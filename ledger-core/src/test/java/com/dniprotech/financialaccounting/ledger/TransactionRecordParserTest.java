@@ -0,0 +1,54 @@
+package com.dniprotech.financialaccounting.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionRecordParserTest {
+    private final TransactionRecordParser parser = new TransactionRecordParser();
+
+    @Test
+    void parsesFormattedRecord() throws MalformedRecordException {
+        LocalDateTime dateTime = LocalDateTime.of(2023, 3, 14, 9, 26, 53);
+        String line = TransactionRecord.format(dateTime, AggregationCube.EXPENSE, "Їжа", 12345, "Кава, круасан");
+
+        TransactionRecord record = parser.parse(line);
+
+        assertEquals(dateTime.toLocalDate(), record.getDate());
+        assertEquals(dateTime.toLocalTime(), record.getTime());
+        assertEquals(AggregationCube.EXPENSE, record.getCategory());
+        assertEquals("Їжа", record.getSubcategory());
+        assertEquals(12345, record.getAmount());
+        assertEquals("Кава, круасан", record.getDescription());
+        assertEquals(line, record.toRecordString());
+    }
+
+    @Test
+    void roundTripsWholeAmountsAndEmptyDescription() throws MalformedRecordException {
+        String line = TransactionRecord.format(LocalDateTime.of(2020, 1, 1, 0, 0), AggregationCube.INCOME,
+                "Заробітна плата", 5_000_000, "");
+
+        assertEquals(line, parser.parse(line).toRecordString());
+    }
+
+    @Test
+    void parsesRecordInsideLargerBuffer() throws MalformedRecordException {
+        String line = TransactionRecord.format(LocalDateTime.of(2021, 12, 31, 23, 59, 59), AggregationCube.INCOME,
+                "Дивіденди", 1, "Квартал");
+        String buffer = "xx" + line + "\nyy";
+
+        TransactionRecord record = parser.parse(buffer, 2, 2 + line.length());
+
+        assertEquals(line, record.toRecordString());
+    }
+
+    @Test
+    void rejectsMalformedRecord() {
+        assertThrows(MalformedRecordException.class, () -> parser.parse("14.03.2023 - Категорія: Витрати"));
+        assertNull(TransactionRecord.fromString("не запис"));
+    }
+}